@@ -2,6 +2,7 @@ package com.example.volux;
 
 
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Path;
@@ -14,15 +15,31 @@ import android.graphics.BlurMaskFilter;
 
 public class AnimatedBorderView extends View {
 
-    private Paint paint;
+    private static final float DOT_RADIUS = 6f;
+    private static final float STROKE_WIDTH = 8f;
+    private static final float GLOW_RADIUS = 10f;
+    private static final float DOT_SPACING = 100f;
+
     private Path borderPath;
     private PathMeasure pathMeasure;
     private float phase = 0f;
     private ValueAnimator animator;
+    // Requested by the owner; the animator only runs while also attached and visible
+    private boolean animationRequested = false;
+    private boolean visibleToUser = false;
 
     private int[] colors = {Color.CYAN, Color.MAGENTA, Color.YELLOW, Color.WHITE, Color.BLUE};
     private int currentColorIndex = 0;
 
+    // Glow dots rendered once; drawing a blurred stroke every frame is expensive
+    private Bitmap[] sprites;
+    private int spriteHalfSize;
+
+    // Points sampled about one pixel apart along the border, rebuilt on resize
+    private float[] lutX = new float[0];
+    private float[] lutY = new float[0];
+    private float pathLength;
+
     public AnimatedBorderView(Context context) {
         super(context);
         init();
@@ -34,16 +51,27 @@ public class AnimatedBorderView extends View {
     }
 
     private void init() {
-        paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        borderPath = new Path();
+        pathMeasure = new PathMeasure();
+        createSprites();
+    }
+
+    private void createSprites() {
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
         paint.setStyle(Paint.Style.STROKE);
-        paint.setStrokeWidth(8f);
-        paint.setColor(Color.CYAN);
+        paint.setStrokeWidth(STROKE_WIDTH);
 
         // Add glow effect
-        paint.setMaskFilter(new BlurMaskFilter(10f, BlurMaskFilter.Blur.NORMAL));
-
-        borderPath = new Path();
-        pathMeasure = new PathMeasure();
+        paint.setMaskFilter(new BlurMaskFilter(GLOW_RADIUS, BlurMaskFilter.Blur.NORMAL));
+
+        spriteHalfSize = (int) Math.ceil(DOT_RADIUS + STROKE_WIDTH / 2f + GLOW_RADIUS * 2f);
+        int size = spriteHalfSize * 2;
+        sprites = new Bitmap[colors.length];
+        for (int i = 0; i < colors.length; i++) {
+            sprites[i] = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+            paint.setColor(colors[i]);
+            new Canvas(sprites[i]).drawCircle(spriteHalfSize, spriteHalfSize, DOT_RADIUS, paint);
+        }
     }
 
     @Override
@@ -55,46 +83,100 @@ public class AnimatedBorderView extends View {
         borderPath.reset();
         borderPath.addRoundRect(10f, 10f, w - 10f, h - 10f, cornerRadius, cornerRadius, Path.Direction.CW);
         pathMeasure.setPath(borderPath, true);
+
+        pathLength = pathMeasure.getLength();
+        int samples = (int) Math.ceil(pathLength);
+        lutX = new float[samples];
+        lutY = new float[samples];
+        float[] pos = new float[2];
+        for (int i = 0; i < samples; i++) {
+            pathMeasure.getPosTan(i * pathLength / samples, pos, null);
+            lutX[i] = pos[0];
+            lutY[i] = pos[1];
+        }
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
 
-        if (pathMeasure.getLength() > 0) {
-            // Draw the animated border
-            float[] pos = new float[2];
-            float[] tan = new float[2];
+        if (lutX.length == 0) return;
+
+        // Draw multiple moving dots
+        for (int i = 0; i < sprites.length; i++) {
+            int index = dotIndex(i);
+            canvas.drawBitmap(sprites[i], lutX[index] - spriteHalfSize, lutY[index] - spriteHalfSize, null);
+        }
+    }
+
+    // Lookup table index of the given dot for the current phase
+    private int dotIndex(int dot) {
+        float distance = (phase * pathLength + dot * DOT_SPACING) % pathLength;
+        return (int) (distance / pathLength * lutX.length) % lutX.length;
+    }
 
-            // Calculate current position on path
-            float distance = (phase * pathMeasure.getLength()) % pathMeasure.getLength();
-            pathMeasure.getPosTan(distance, pos, tan);
+    public void startAnimation() {
+        animationRequested = true;
+        updateAnimator();
+    }
 
-            // Draw multiple moving dots
-            for (int i = 0; i < 5; i++) {
-                float offsetDistance = (distance + i * 100) % pathMeasure.getLength();
-                pathMeasure.getPosTan(offsetDistance, pos, tan);
+    // Run, pause or resume the border to match the request, attachment and visibility
+    private void updateAnimator() {
+        boolean shouldRun = animationRequested && visibleToUser && isAttachedToWindow();
 
-                paint.setColor(colors[i]);
-                canvas.drawCircle(pos[0], pos[1], 6f, paint);
+        if (!shouldRun) {
+            if (animator != null && animator.isStarted()) {
+                animator.pause();
             }
+            return;
+        }
+
+        if (animator == null) {
+            animator = ValueAnimator.ofFloat(0f, 1f);
+            animator.setDuration(2000);
+            animator.setRepeatCount(ValueAnimator.INFINITE);
+            animator.addUpdateListener(animation -> {
+                // Same as the animated value for a 0 to 1 animator, without boxing a Float
+                phase = animation.getAnimatedFraction();
+                // Each frame re-records a handful of bitmap draws instead of blurred strokes
+                invalidate();
+            });
+            animator.start();
+        } else if (animator.isPaused()) {
+            animator.resume();
         }
     }
 
-    public void startAnimation() {
-        animator = ValueAnimator.ofFloat(0f, 1f);
-        animator.setDuration(2000);
-        animator.setRepeatCount(ValueAnimator.INFINITE);
-        animator.addUpdateListener(animation -> {
-            phase = (float) animation.getAnimatedValue();
-            invalidate();
-        });
-        animator.start();
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        // Also false while the window is hidden, e.g. after the activity stops
+        visibleToUser = isVisible;
+        updateAnimator();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        updateAnimator();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        releaseAnimator();
     }
 
     public void stopAnimation() {
+        animationRequested = false;
+        releaseAnimator();
+    }
+
+    private void releaseAnimator() {
         if (animator != null) {
+            animator.removeAllUpdateListeners();
             animator.cancel();
+            animator = null;
         }
     }
 }
@@ -0,0 +1,71 @@
+package com.example.volux;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.XmlResourceParser;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.ContextThemeWrapper;
+
+import org.xmlpull.v1.XmlPullParser;
+
+/**
+ * Warms up what MainActivity needs on first launch while the splash is on screen:
+ * the VoluxPrefs file and the drawables and colours behind activity_main.
+ * No views are created here; view constructors may need a Looper, so MainActivity
+ * still inflates on the main thread, just against hot caches. Runs once per process.
+ */
+class AppPreloader {
+
+    private static final String TAG = "AppPreloader";
+
+    private static volatile boolean ready = false;
+
+    static boolean isReady() {
+        return ready;
+    }
+
+    // onReady runs on the main thread once everything is loaded, or loading failed
+    static void preload(Context context, Runnable onReady) {
+        Context appContext = context.getApplicationContext();
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+
+        new Thread(() -> {
+            try {
+                // Blocks until the file is parsed; MainActivity then gets the cached instance
+                appContext.getSharedPreferences(VoluxConfig.PREFS_NAME, Context.MODE_PRIVATE).getAll();
+
+                Context themed = new ContextThemeWrapper(appContext, R.style.Theme_Volux);
+                loadLayoutResources(themed, R.layout.activity_main);
+            } catch (Exception e) {
+                Log.e(TAG, "Error preloading main screen", e);
+            }
+            ready = true;
+            mainHandler.post(onReady);
+        }, "VoluxPreload").start();
+    }
+
+    // Pulls every drawable and colour the layout references into the Resources caches
+    private static void loadLayoutResources(Context context, int layoutId) throws Exception {
+        Resources res = context.getResources();
+        try (XmlResourceParser parser = res.getLayout(layoutId)) {
+            int event;
+            while ((event = parser.next()) != XmlPullParser.END_DOCUMENT) {
+                if (event != XmlPullParser.START_TAG) continue;
+
+                for (int i = 0; i < parser.getAttributeCount(); i++) {
+                    int id = parser.getAttributeResourceValue(i, 0);
+                    if (id == 0) continue;
+
+                    String type = res.getResourceTypeName(id);
+                    if ("drawable".equals(type)) {
+                        context.getDrawable(id);
+                    } else if ("color".equals(type)) {
+                        context.getColorStateList(id);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.volux;
+
+import android.animation.ValueAnimator;
+import android.view.View;
+
+/**
+ * Bounce-and-pop feedback for a single view, driven by one preallocated ValueAnimator.
+ * Values are written straight to the view's translation/scale (RenderNode properties),
+ * so no reflection runs and the view's content is never re-recorded. Triggering it again
+ * while it runs retargets the running animation instead of stacking a new one.
+ */
+class FeedbackAnimator implements ValueAnimator.AnimatorUpdateListener {
+
+    private final View target;
+    private final ValueAnimator animator;
+
+    private float peakTranslationY;
+    private float peakScale;
+    // Fraction of the run after which the scale pop has returned to 1
+    private float scaleEnd;
+
+    FeedbackAnimator(View target) {
+        this.target = target;
+        animator = ValueAnimator.ofFloat(0f, 1f);
+        animator.addUpdateListener(this);
+    }
+
+    void play(float translationY, float scale, long duration, long scaleDuration) {
+        boolean sameDirection = Math.signum(translationY) == Math.signum(peakTranslationY);
+
+        if (animator.isRunning() && sameDirection) {
+            float fraction = animator.getAnimatedFraction();
+            if (fraction <= 0.5f) {
+                // Still on the way out; the running bounce already covers this tap
+                return;
+            }
+            // On the way back: mirror the position so it heads out again without a jump
+            animator.setCurrentFraction(1f - fraction);
+            return;
+        }
+
+        animator.cancel();
+        peakTranslationY = translationY;
+        peakScale = scale;
+        scaleEnd = Math.min(1f, (float) scaleDuration / duration);
+        animator.setDuration(duration);
+        animator.start();
+        VoluxMetrics.count(VoluxMetrics.Counter.ANIMATORS_STARTED);
+    }
+
+    void cancel() {
+        animator.cancel();
+        target.setTranslationY(0f);
+        target.setScaleX(1f);
+        target.setScaleY(1f);
+    }
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animation) {
+        // The animator runs 0 to 1, so the fraction is the value, read without boxing a Float
+        float value = animation.getAnimatedFraction();
+
+        float bounce = value < 0.5f ? value * 2f : 2f - value * 2f;
+        target.setTranslationY(peakTranslationY * bounce);
+
+        float scaleValue = Math.min(1f, value / scaleEnd);
+        float pop = scaleValue < 0.5f ? scaleValue * 2f : 2f - scaleValue * 2f;
+        float scale = 1f + (peakScale - 1f) * pop;
+        target.setScaleX(scale);
+        target.setScaleY(scale);
+    }
+}
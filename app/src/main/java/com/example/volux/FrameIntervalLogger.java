@@ -0,0 +1,56 @@
+package com.example.volux;
+
+import android.util.Log;
+import android.view.Choreographer;
+
+/**
+ * Logs frame pacing over a short window, used to compare overlay transitions.
+ * Off unless enabled with {@code adb shell setprop log.tag.VoluxFrames DEBUG};
+ * each transition then logs its frame count, average and worst frame interval.
+ */
+class FrameIntervalLogger implements Choreographer.FrameCallback {
+
+    private static final String TAG = "VoluxFrames";
+
+    private String label;
+    private long endTimeNanos;
+    private long lastFrameNanos;
+    private long worstIntervalNanos;
+    private long totalIntervalNanos;
+    private int frames;
+
+    // Main thread only
+    void start(String label, long durationMs) {
+        if (!Log.isLoggable(TAG, Log.DEBUG)) return;
+
+        Choreographer choreographer = Choreographer.getInstance();
+        choreographer.removeFrameCallback(this);
+        this.label = label;
+        endTimeNanos = System.nanoTime() + durationMs * 1_000_000L;
+        lastFrameNanos = 0;
+        worstIntervalNanos = 0;
+        totalIntervalNanos = 0;
+        frames = 0;
+        choreographer.postFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (lastFrameNanos != 0) {
+            long interval = frameTimeNanos - lastFrameNanos;
+            totalIntervalNanos += interval;
+            worstIntervalNanos = Math.max(worstIntervalNanos, interval);
+            frames++;
+        }
+        lastFrameNanos = frameTimeNanos;
+
+        if (frameTimeNanos < endTimeNanos) {
+            Choreographer.getInstance().postFrameCallback(this);
+            return;
+        }
+
+        float average = frames > 0 ? totalIntervalNanos / (frames * 1_000_000f) : 0f;
+        Log.d(TAG, label + ": " + frames + " frames, avg " + average + " ms, worst "
+                + worstIntervalNanos / 1_000_000f + " ms");
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.volux;
+
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+/**
+ * In-memory copy of the overlay geometry (positions and sizes).
+ * Drag and pinch handlers update it freely; the values they changed are written back to
+ * VoluxPrefs in one write when the gesture ends or after IDLE_FLUSH_MS without changes.
+ * Keys nobody changed here are left alone, so values the settings screen wrote survive.
+ */
+class GeometryStore {
+
+    private static final long IDLE_FLUSH_MS = 500;
+    private static final int NO_PREVIEW = -1;
+
+    // What changed since the last flush or reload
+    private static final int DIRTY_BUTTONS_POSITION = 1;
+    private static final int DIRTY_GESTURE_BOX_POSITION = 1 << 1;
+    private static final int DIRTY_BUTTON_SIZE = 1 << 2;
+    private static final int DIRTY_GESTURE_BOX_SIZE = 1 << 3;
+
+    private final SharedPreferences prefs;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable idleFlush = this::onIdleFlush;
+
+    private int buttonsX, buttonsY;
+    private int gestureBoxX, gestureBoxY;
+    private int gestureBoxWidth, gestureBoxHeight;
+    private int buttonSize;
+
+    // Live sizes pushed from the settings screen, which persists them itself. They are
+    // never written from here and stay in effect until the next reload or pinch.
+    private int previewButtonSize = NO_PREVIEW;
+    private int previewGestureBoxWidth = NO_PREVIEW;
+    private int previewGestureBoxHeight = NO_PREVIEW;
+
+    private int dirty = 0;
+    private boolean idleFlushPending = false;
+    private long lastChangeTime;
+
+    GeometryStore(SharedPreferences prefs) {
+        this.prefs = prefs;
+        reload();
+    }
+
+    // Re-read everything from prefs, dropping uncommitted changes and previews:
+    // whatever the settings screen last persisted wins
+    void reload() {
+        mainHandler.removeCallbacks(idleFlush);
+        idleFlushPending = false;
+        dirty = 0;
+        previewButtonSize = NO_PREVIEW;
+        previewGestureBoxWidth = NO_PREVIEW;
+        previewGestureBoxHeight = NO_PREVIEW;
+
+        buttonsX = prefs.getInt(VoluxConfig.KEY_BUTTONS_X, 100);
+        buttonsY = prefs.getInt(VoluxConfig.KEY_BUTTONS_Y, 100);
+        gestureBoxX = prefs.getInt(VoluxConfig.KEY_GESTURE_BOX_X, 50);
+        gestureBoxY = prefs.getInt(VoluxConfig.KEY_GESTURE_BOX_Y, 0);
+        gestureBoxWidth = prefs.getInt(VoluxConfig.KEY_GESTURE_BOX_WIDTH, VoluxConfig.DEFAULT_GESTURE_BOX_WIDTH);
+        gestureBoxHeight = prefs.getInt(VoluxConfig.KEY_GESTURE_BOX_HEIGHT, VoluxConfig.DEFAULT_GESTURE_BOX_HEIGHT);
+        buttonSize = prefs.getInt(VoluxConfig.KEY_BUTTON_SIZE, VoluxConfig.DEFAULT_BUTTON_SIZE);
+    }
+
+    int getButtonsX() { return buttonsX; }
+    int getButtonsY() { return buttonsY; }
+    int getGestureBoxX() { return gestureBoxX; }
+    int getGestureBoxY() { return gestureBoxY; }
+
+    int getGestureBoxWidth() {
+        return previewGestureBoxWidth != NO_PREVIEW ? previewGestureBoxWidth : gestureBoxWidth;
+    }
+
+    int getGestureBoxHeight() {
+        return previewGestureBoxHeight != NO_PREVIEW ? previewGestureBoxHeight : gestureBoxHeight;
+    }
+
+    int getButtonSize() {
+        return previewButtonSize != NO_PREVIEW ? previewButtonSize : buttonSize;
+    }
+
+    void setButtonsPosition(int x, int y) {
+        if (x == buttonsX && y == buttonsY) return;
+        buttonsX = x;
+        buttonsY = y;
+        markDirty(DIRTY_BUTTONS_POSITION);
+    }
+
+    void setGestureBoxPosition(int x, int y) {
+        if (x == gestureBoxX && y == gestureBoxY) return;
+        gestureBoxX = x;
+        gestureBoxY = y;
+        markDirty(DIRTY_GESTURE_BOX_POSITION);
+    }
+
+    void setGestureBoxSize(int width, int height) {
+        // A pinch starts from whatever is shown and takes over from the preview, whose
+        // value prefs may hold by now, so the stored field can't tell if this is new
+        boolean fromPreview = previewGestureBoxWidth != NO_PREVIEW;
+        previewGestureBoxWidth = NO_PREVIEW;
+        previewGestureBoxHeight = NO_PREVIEW;
+        if (!fromPreview && width == gestureBoxWidth && height == gestureBoxHeight) return;
+        gestureBoxWidth = width;
+        gestureBoxHeight = height;
+        markDirty(DIRTY_GESTURE_BOX_SIZE);
+    }
+
+    void setButtonSize(int size) {
+        boolean fromPreview = previewButtonSize != NO_PREVIEW;
+        previewButtonSize = NO_PREVIEW;
+        if (!fromPreview && size == buttonSize) return;
+        buttonSize = size;
+        markDirty(DIRTY_BUTTON_SIZE);
+    }
+
+    void previewButtonSize(int size) {
+        previewButtonSize = size;
+    }
+
+    void previewGestureBoxSize(int width, int height) {
+        previewGestureBoxWidth = width;
+        previewGestureBoxHeight = height;
+    }
+
+    private void markDirty(int what) {
+        dirty |= what;
+        lastChangeTime = SystemClock.uptimeMillis();
+
+        // Only one idle callback is ever queued; it re-arms itself if changes keep coming
+        if (!idleFlushPending) {
+            idleFlushPending = true;
+            mainHandler.postDelayed(idleFlush, IDLE_FLUSH_MS);
+        }
+    }
+
+    private void onIdleFlush() {
+        idleFlushPending = false;
+        long remaining = lastChangeTime + IDLE_FLUSH_MS - SystemClock.uptimeMillis();
+        if (remaining > 0) {
+            idleFlushPending = true;
+            mainHandler.postDelayed(idleFlush, remaining);
+        } else {
+            flush();
+        }
+    }
+
+    // Called at the end of a drag or pinch: persist what changed in one atomic write
+    void flush() {
+        mainHandler.removeCallbacks(idleFlush);
+        idleFlushPending = false;
+        if (dirty == 0) return;
+        int changed = dirty;
+        dirty = 0;
+
+        SharedPreferences.Editor editor = prefs.edit();
+        if ((changed & DIRTY_BUTTONS_POSITION) != 0) {
+            editor.putInt(VoluxConfig.KEY_BUTTONS_X, buttonsX)
+                    .putInt(VoluxConfig.KEY_BUTTONS_Y, buttonsY);
+        }
+        if ((changed & DIRTY_GESTURE_BOX_POSITION) != 0) {
+            editor.putInt(VoluxConfig.KEY_GESTURE_BOX_X, gestureBoxX)
+                    .putInt(VoluxConfig.KEY_GESTURE_BOX_Y, gestureBoxY);
+        }
+        if ((changed & DIRTY_GESTURE_BOX_SIZE) != 0) {
+            editor.putInt(VoluxConfig.KEY_GESTURE_BOX_WIDTH, gestureBoxWidth)
+                    .putInt(VoluxConfig.KEY_GESTURE_BOX_HEIGHT, gestureBoxHeight);
+        }
+        if ((changed & DIRTY_BUTTON_SIZE) != 0) {
+            editor.putInt(VoluxConfig.KEY_BUTTON_SIZE, buttonSize);
+        }
+
+        // apply() updates the in-memory prefs right away, so a reload() or a settings
+        // write that follows sees these values; only the disk write is deferred
+        VoluxMetrics.count(VoluxMetrics.Counter.PREFS_WRITES);
+        editor.apply();
+    }
+
+    void close() {
+        flush();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.volux;
+
+import android.view.Choreographer;
+import android.view.View;
+import android.view.WindowManager;
+
+import java.util.ArrayList;
+
+/**
+ * Batches overlay window layout changes to one WindowManager update per window per frame.
+ * Callers edit the window's own LayoutParams and call {@link #request}; the latest values
+ * are sent on the next vsync, however many touch events arrived in between.
+ */
+class LayoutCommitter implements Choreographer.FrameCallback {
+
+    private final WindowManager windowManager;
+    // At most a few overlay windows, so a list beats a set here
+    private final ArrayList<View> pending = new ArrayList<>(3);
+    private boolean scheduled = false;
+
+    LayoutCommitter(WindowManager windowManager) {
+        this.windowManager = windowManager;
+    }
+
+    // Main thread only
+    void request(View window) {
+        if (!pending.contains(window)) {
+            pending.add(window);
+        }
+        if (!scheduled) {
+            scheduled = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    // Send anything pending right away, e.g. when a drag ends
+    void flush() {
+        if (scheduled) {
+            Choreographer.getInstance().removeFrameCallback(this);
+            scheduled = false;
+        }
+        commitPending();
+    }
+
+    // Drop pending updates, e.g. before the windows are removed
+    void cancel() {
+        if (scheduled) {
+            Choreographer.getInstance().removeFrameCallback(this);
+            scheduled = false;
+        }
+        pending.clear();
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        scheduled = false;
+        commitPending();
+    }
+
+    private void commitPending() {
+        boolean traced = VoluxTrace.begin("Volux:layoutCommit");
+        try {
+            for (int i = 0; i < pending.size(); i++) {
+                View window = pending.get(i);
+                // The window may have been removed since the request
+                if (!window.isAttachedToWindow()) continue;
+                windowManager.updateViewLayout(window, window.getLayoutParams());
+                VoluxMetrics.count(VoluxMetrics.Counter.LAYOUT_UPDATES);
+            }
+        } finally {
+            pending.clear();
+            VoluxTrace.end(traced);
+        }
+    }
+}
@@ -35,12 +35,14 @@ public class MainActivity extends AppCompatActivity {
     private static final String CHANNEL_ID = "VoluxService";
 
     private SharedPreferences prefs;
+    private ServiceChannel serviceChannel;
     private SwitchMaterial switchFloatingButtons, switchGestureBox, switchBothModes,
-            switchAlwaysVisible, switchMoveMode;
+            switchAlwaysVisible, switchMoveMode, switchVelocityGesture, switchSingleWindow;
     private SeekBar seekBarOpacity, seekBarAutoHideDelay, seekBarGestureBoxSize;
     private TextView textOpacity, textAutoHideDelay, textGestureBoxSize;
     private Button btnStartService, btnStopService, btnSettings, btnCustomSize;
     private CardView settingsCard;
+    private boolean settingsCardHiding = false;
 
     // New UI elements for enhanced features
     private TextView textCurrentSize, textButtonSize;
@@ -54,6 +56,7 @@ public class MainActivity extends AppCompatActivity {
 
         initViews();
         setupPreferences();
+        serviceChannel = new ServiceChannel(this);
         createNotificationChannel();
         checkPermissions();
         setupListeners();
@@ -77,6 +80,8 @@ public class MainActivity extends AppCompatActivity {
         settingsCard = findViewById(R.id.settingsCard);
         switchAlwaysVisible = findViewById(R.id.switchAlwaysVisible);
         switchMoveMode = findViewById(R.id.switchMoveMode);
+        switchVelocityGesture = findViewById(R.id.switchVelocityGesture);
+        switchSingleWindow = findViewById(R.id.switchSingleWindow);
 
         // Add new UI elements programmatically since they're not in the XML
         addEnhancedUIElements();
@@ -152,7 +157,7 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void setupPreferences() {
-        prefs = getSharedPreferences("VoluxPrefs", MODE_PRIVATE);
+        prefs = getSharedPreferences(VoluxConfig.PREFS_NAME, MODE_PRIVATE);
     }
 
     private void createNotificationChannel() {
@@ -190,35 +195,35 @@ public class MainActivity extends AppCompatActivity {
     private void setupListeners() {
         // Control mode switches
         switchFloatingButtons.setOnCheckedChangeListener((buttonView, isChecked) -> {
-            prefs.edit().putBoolean("floating_buttons", isChecked).apply();
+            prefs.edit().putBoolean(VoluxConfig.KEY_FLOATING_BUTTONS, isChecked).apply();
             if (isChecked) {
                 switchGestureBox.setChecked(false);
                 switchBothModes.setChecked(false);
             }
-            updateServiceIfRunning();
+            serviceChannel.putBoolean(VoluxConfig.KEY_FLOATING_BUTTONS, isChecked);
         });
 
         switchGestureBox.setOnCheckedChangeListener((buttonView, isChecked) -> {
-            prefs.edit().putBoolean("gesture_box", isChecked).apply();
+            prefs.edit().putBoolean(VoluxConfig.KEY_GESTURE_BOX, isChecked).apply();
             if (isChecked) {
                 switchFloatingButtons.setChecked(false);
                 switchBothModes.setChecked(false);
             }
-            updateServiceIfRunning();
+            serviceChannel.putBoolean(VoluxConfig.KEY_GESTURE_BOX, isChecked);
         });
 
         switchBothModes.setOnCheckedChangeListener((buttonView, isChecked) -> {
-            prefs.edit().putBoolean("both_modes", isChecked).apply();
+            prefs.edit().putBoolean(VoluxConfig.KEY_BOTH_MODES, isChecked).apply();
             if (isChecked) {
                 switchFloatingButtons.setChecked(false);
                 switchGestureBox.setChecked(false);
             }
-            updateServiceIfRunning();
+            serviceChannel.putBoolean(VoluxConfig.KEY_BOTH_MODES, isChecked);
         });
 
         // Move Mode Switch - Enhanced with visual feedback
         switchMoveMode.setOnCheckedChangeListener((buttonView, isChecked) -> {
-            prefs.edit().putBoolean("move_mode_enabled", isChecked).apply();
+            prefs.edit().putBoolean(VoluxConfig.KEY_MOVE_MODE, isChecked).apply();
 
             // Show toast to inform user about move mode
             if (isChecked) {
@@ -229,102 +234,92 @@ public class MainActivity extends AppCompatActivity {
                         Toast.LENGTH_SHORT).show();
             }
 
-            updateServiceIfRunning();
+            serviceChannel.putBoolean(VoluxConfig.KEY_MOVE_MODE, isChecked);
         });
 
         // Always Visible Switch
         switchAlwaysVisible.setOnCheckedChangeListener((buttonView, isChecked) -> {
-            prefs.edit().putBoolean("always_visible", isChecked).apply();
-            updateServiceIfRunning();
+            prefs.edit().putBoolean(VoluxConfig.KEY_ALWAYS_VISIBLE, isChecked).apply();
+            serviceChannel.putBoolean(VoluxConfig.KEY_ALWAYS_VISIBLE, isChecked);
         });
 
-        // Opacity SeekBar - Enhanced with real-time feedback
-        seekBarOpacity.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
+        // Velocity Swipe Switch
+        switchVelocityGesture.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            prefs.edit().putBoolean(VoluxConfig.KEY_VELOCITY_GESTURE, isChecked).apply();
+            serviceChannel.putBoolean(VoluxConfig.KEY_VELOCITY_GESTURE, isChecked);
+        });
+
+        // Single Window Switch
+        switchSingleWindow.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            prefs.edit().putBoolean(VoluxConfig.KEY_SINGLE_WINDOW, isChecked).apply();
+            serviceChannel.putBoolean(VoluxConfig.KEY_SINGLE_WINDOW, isChecked);
+        });
+
+        // Opacity SeekBar - live preview once per frame, saved when released
+        seekBarOpacity.setOnSeekBarChangeListener(new SliderPreviewListener() {
             @Override
-            public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+            protected void onPreview(int progress) {
                 float opacity = (progress + 20) / 100f; // Min opacity 0.2, max 1.0
                 textOpacity.setText("Opacity: " + (int)(opacity * 100) + "%");
-                prefs.edit().putFloat("opacity", opacity).apply();
-
-                // Provide visual feedback
-                if (fromUser) {
-                    updateServiceIfRunning();
-                }
+                serviceChannel.putFloat(VoluxConfig.KEY_OPACITY, opacity);
             }
 
             @Override
-            public void onStartTrackingTouch(SeekBar seekBar) {}
-
-            @Override
-            public void onStopTrackingTouch(SeekBar seekBar) {
+            protected void onCommit(int progress) {
+                prefs.edit().putFloat(VoluxConfig.KEY_OPACITY, (progress + 20) / 100f).apply();
                 Toast.makeText(MainActivity.this, "Opacity updated", Toast.LENGTH_SHORT).show();
             }
         });
 
         // Auto-hide Delay SeekBar
-        seekBarAutoHideDelay.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
+        seekBarAutoHideDelay.setOnSeekBarChangeListener(new SliderPreviewListener() {
             @Override
-            public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+            protected void onPreview(int progress) {
                 int delay = progress + 1; // 1-10 seconds
                 textAutoHideDelay.setText("Auto-hide Delay: " + delay + "s");
-                prefs.edit().putInt("auto_hide_delay", delay * 1000).apply();
-
-                if (fromUser) {
-                    updateServiceIfRunning();
-                }
+                serviceChannel.putInt(VoluxConfig.KEY_AUTO_HIDE_DELAY, delay * 1000);
             }
 
             @Override
-            public void onStartTrackingTouch(SeekBar seekBar) {}
-
-            @Override
-            public void onStopTrackingTouch(SeekBar seekBar) {}
+            protected void onCommit(int progress) {
+                prefs.edit().putInt(VoluxConfig.KEY_AUTO_HIDE_DELAY, (progress + 1) * 1000).apply();
+            }
         });
 
         // Enhanced Gesture Box Size SeekBar
-        seekBarGestureBoxSize.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
+        seekBarGestureBoxSize.setOnSeekBarChangeListener(new SliderPreviewListener() {
             @Override
-            public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+            protected void onPreview(int progress) {
                 int width = progress + 100; // Width: 100-300
                 int height = (progress / 2) + 80; // Height: 80-180
                 textGestureBoxSize.setText("Gesture Box: " + width + " x " + height + "dp");
                 textCurrentSize.setText("Current Gesture Box: " + width + " x " + height + "dp");
+                serviceChannel.putInt(VoluxConfig.KEY_GESTURE_BOX_WIDTH, width);
+                serviceChannel.putInt(VoluxConfig.KEY_GESTURE_BOX_HEIGHT, height);
+            }
 
+            @Override
+            protected void onCommit(int progress) {
                 prefs.edit()
-                        .putInt("gesture_box_width", width)
-                        .putInt("gesture_box_height", height)
+                        .putInt(VoluxConfig.KEY_GESTURE_BOX_WIDTH, progress + 100)
+                        .putInt(VoluxConfig.KEY_GESTURE_BOX_HEIGHT, (progress / 2) + 80)
                         .apply();
-
-                if (fromUser) {
-                    updateServiceIfRunning();
-                }
             }
-
-            @Override
-            public void onStartTrackingTouch(SeekBar seekBar) {}
-
-            @Override
-            public void onStopTrackingTouch(SeekBar seekBar) {}
         });
 
         // Button Size SeekBar
-        seekBarButtonSize.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
+        seekBarButtonSize.setOnSeekBarChangeListener(new SliderPreviewListener() {
             @Override
-            public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+            protected void onPreview(int progress) {
                 int size = progress + 40; // Range: 40-120dp
                 textButtonSize.setText("Button Size: " + size + "dp");
-                prefs.edit().putInt("current_button_size", size).apply();
-
-                if (fromUser) {
-                    updateServiceIfRunning();
-                }
+                serviceChannel.putInt(VoluxConfig.KEY_BUTTON_SIZE, size);
             }
 
             @Override
-            public void onStartTrackingTouch(SeekBar seekBar) {}
-
-            @Override
-            public void onStopTrackingTouch(SeekBar seekBar) {}
+            protected void onCommit(int progress) {
+                prefs.edit().putInt(VoluxConfig.KEY_BUTTON_SIZE, progress + 40).apply();
+            }
         });
 
         // Service Control Buttons
@@ -366,6 +361,7 @@ public class MainActivity extends AppCompatActivity {
     private void toggleSettingsCard() {
         if (settingsCard.getVisibility() == View.VISIBLE) {
             // Hide with smooth animation
+            settingsCardHiding = true;
             settingsCard.animate()
                     .alpha(0f)
                     .scaleY(0f)
@@ -375,6 +371,7 @@ public class MainActivity extends AppCompatActivity {
                     .start();
         } else {
             // Show with smooth animation
+            settingsCardHiding = false;
             settingsCard.setVisibility(View.VISIBLE);
             settingsCard.setAlpha(0f);
             settingsCard.setScaleY(0f);
@@ -388,6 +385,17 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    // Jump a running toggle animation to its end state instead of animating off screen
+    private void settleSettingsCard() {
+        settingsCard.animate().cancel();
+        settingsCard.setAlpha(1f);
+        settingsCard.setScaleY(1f);
+        settingsCard.setTranslationY(0f);
+        if (settingsCardHiding) {
+            settingsCard.setVisibility(View.GONE);
+        }
+    }
+
     private void showCustomSizeDialog() {
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle("Set Custom Size");
@@ -405,7 +413,7 @@ public class MainActivity extends AppCompatActivity {
 
         EditText widthInput = new EditText(this);
         widthInput.setInputType(InputType.TYPE_CLASS_NUMBER);
-        widthInput.setText(String.valueOf(prefs.getInt("gesture_box_width", 200)));
+        widthInput.setText(String.valueOf(prefs.getInt(VoluxConfig.KEY_GESTURE_BOX_WIDTH, VoluxConfig.DEFAULT_GESTURE_BOX_WIDTH)));
         layout.addView(widthInput);
 
         // Height input
@@ -417,7 +425,7 @@ public class MainActivity extends AppCompatActivity {
 
         EditText heightInput = new EditText(this);
         heightInput.setInputType(InputType.TYPE_CLASS_NUMBER);
-        heightInput.setText(String.valueOf(prefs.getInt("gesture_box_height", 100)));
+        heightInput.setText(String.valueOf(prefs.getInt(VoluxConfig.KEY_GESTURE_BOX_HEIGHT, VoluxConfig.DEFAULT_GESTURE_BOX_HEIGHT)));
         layout.addView(heightInput);
 
         builder.setView(layout);
@@ -433,8 +441,8 @@ public class MainActivity extends AppCompatActivity {
 
                 // Save preferences
                 prefs.edit()
-                        .putInt("gesture_box_width", width)
-                        .putInt("gesture_box_height", height)
+                        .putInt(VoluxConfig.KEY_GESTURE_BOX_WIDTH, width)
+                        .putInt(VoluxConfig.KEY_GESTURE_BOX_HEIGHT, height)
                         .apply();
 
                 // Update UI
@@ -463,13 +471,13 @@ public class MainActivity extends AppCompatActivity {
                 .setPositiveButton("Reset", (dialog, which) -> {
                     // Reset all position preferences
                     prefs.edit()
-                            .remove("floating_buttons_x")
-                            .remove("floating_buttons_y")
-                            .remove("gesture_box_x")
-                            .remove("gesture_box_y")
-                            .putInt("gesture_box_width", 200)
-                            .putInt("gesture_box_height", 100)
-                            .putInt("current_button_size", 60)
+                            .remove(VoluxConfig.KEY_BUTTONS_X)
+                            .remove(VoluxConfig.KEY_BUTTONS_Y)
+                            .remove(VoluxConfig.KEY_GESTURE_BOX_X)
+                            .remove(VoluxConfig.KEY_GESTURE_BOX_Y)
+                            .putInt(VoluxConfig.KEY_GESTURE_BOX_WIDTH, VoluxConfig.DEFAULT_GESTURE_BOX_WIDTH)
+                            .putInt(VoluxConfig.KEY_GESTURE_BOX_HEIGHT, VoluxConfig.DEFAULT_GESTURE_BOX_HEIGHT)
+                            .putInt(VoluxConfig.KEY_BUTTON_SIZE, VoluxConfig.DEFAULT_BUTTON_SIZE)
                             .apply();
 
                     // Update UI
@@ -483,15 +491,8 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void updateServiceIfRunning() {
-        Intent updateIntent = new Intent(this, VoluxService.class);
-        updateIntent.setAction("UPDATE_SETTINGS");
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            try {
-                startForegroundService(updateIntent);
-            } catch (Exception e) {
-                // Service not running, ignore
-            }
-        }
+        // No-op unless the service is running; never starts it
+        serviceChannel.requestReload();
     }
 
     private void updateServiceButtons(boolean serviceRunning) {
@@ -503,31 +504,33 @@ public class MainActivity extends AppCompatActivity {
 
     private void updateUI() {
         // Update switches
-        switchFloatingButtons.setChecked(prefs.getBoolean("floating_buttons", true));
-        switchGestureBox.setChecked(prefs.getBoolean("gesture_box", false));
-        switchBothModes.setChecked(prefs.getBoolean("both_modes", false));
-        switchMoveMode.setChecked(prefs.getBoolean("move_mode_enabled", false));
-        switchAlwaysVisible.setChecked(prefs.getBoolean("always_visible", false));
+        switchFloatingButtons.setChecked(prefs.getBoolean(VoluxConfig.KEY_FLOATING_BUTTONS, true));
+        switchGestureBox.setChecked(prefs.getBoolean(VoluxConfig.KEY_GESTURE_BOX, false));
+        switchBothModes.setChecked(prefs.getBoolean(VoluxConfig.KEY_BOTH_MODES, false));
+        switchMoveMode.setChecked(prefs.getBoolean(VoluxConfig.KEY_MOVE_MODE, false));
+        switchAlwaysVisible.setChecked(prefs.getBoolean(VoluxConfig.KEY_ALWAYS_VISIBLE, false));
+        switchVelocityGesture.setChecked(prefs.getBoolean(VoluxConfig.KEY_VELOCITY_GESTURE, false));
+        switchSingleWindow.setChecked(prefs.getBoolean(VoluxConfig.KEY_SINGLE_WINDOW, false));
 
         // Update opacity
-        float opacity = prefs.getFloat("opacity", 0.8f);
+        float opacity = prefs.getFloat(VoluxConfig.KEY_OPACITY, VoluxConfig.DEFAULT_OPACITY);
         seekBarOpacity.setProgress((int)(opacity * 100) - 20);
         textOpacity.setText("Opacity: " + (int)(opacity * 100) + "%");
 
         // Update auto-hide delay
-        int autoHideDelay = prefs.getInt("auto_hide_delay", 3000) / 1000;
+        int autoHideDelay = prefs.getInt(VoluxConfig.KEY_AUTO_HIDE_DELAY, VoluxConfig.DEFAULT_AUTO_HIDE_DELAY) / 1000;
         seekBarAutoHideDelay.setProgress(autoHideDelay - 1);
         textAutoHideDelay.setText("Auto-hide Delay: " + autoHideDelay + "s");
 
         // Update gesture box size
-        int gestureBoxWidth = prefs.getInt("gesture_box_width", 200);
-        int gestureBoxHeight = prefs.getInt("gesture_box_height", 100);
+        int gestureBoxWidth = prefs.getInt(VoluxConfig.KEY_GESTURE_BOX_WIDTH, VoluxConfig.DEFAULT_GESTURE_BOX_WIDTH);
+        int gestureBoxHeight = prefs.getInt(VoluxConfig.KEY_GESTURE_BOX_HEIGHT, VoluxConfig.DEFAULT_GESTURE_BOX_HEIGHT);
         seekBarGestureBoxSize.setProgress(gestureBoxWidth - 100);
         textGestureBoxSize.setText("Gesture Box: " + gestureBoxWidth + " x " + gestureBoxHeight + "dp");
         textCurrentSize.setText("Current Gesture Box: " + gestureBoxWidth + " x " + gestureBoxHeight + "dp");
 
         // Update button size
-        int buttonSize = prefs.getInt("current_button_size", 60);
+        int buttonSize = prefs.getInt(VoluxConfig.KEY_BUTTON_SIZE, VoluxConfig.DEFAULT_BUTTON_SIZE);
         seekBarButtonSize.setProgress(buttonSize - 40);
         textButtonSize.setText("Button Size: " + buttonSize + "dp");
     }
@@ -568,6 +571,19 @@ public class MainActivity extends AppCompatActivity {
         return (int) (dp * getResources().getDisplayMetrics().density);
     }
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+        serviceChannel.attach();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        serviceChannel.detach();
+        settleSettingsCard();
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
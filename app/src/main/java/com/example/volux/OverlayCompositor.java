@@ -0,0 +1,231 @@
+package com.example.volux;
+
+import android.content.Context;
+import android.view.Gravity;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.WindowManager;
+
+/**
+ * Overlay window root hosting one or more controls. In single-window mode one compositor
+ * holds the floating buttons, the gesture box and the dot indicator; otherwise each movable
+ * control gets its own. Visible children are laid out side by side and vertically centred,
+ * and the window wraps them tightly.
+ * Touches that land in the gaps between children are swallowed instead of reaching a control.
+ * While dragged or pinched, the window is temporarily enlarged and the children follow the
+ * fingers through render-side translation and scale, so the gesture needs no window updates.
+ */
+class OverlayCompositor extends ViewGroup {
+
+    private final int gap;
+
+    private int contentHeight;
+    private boolean inGesture = false;
+    // Screen position of the content when the gesture started
+    private final int[] gestureAnchor = new int[2];
+    private final int[] location = new int[2];
+    // Window placement before the gesture, and where it goes when the gesture ends
+    private int startX, startY;
+    private int endX, endY;
+    private int restoreWidth, restoreHeight;
+    // Render-side transforms shown during the gesture
+    private float dragX, dragY;
+    private View scaledChild;
+    private float previewScaleX = 1f, previewScaleY = 1f;
+
+    OverlayCompositor(Context context, int gap) {
+        super(context);
+        this.gap = gap;
+    }
+
+    void addControl(View child, int width, int height) {
+        addView(child, new LayoutParams(width, height));
+    }
+
+    // Enlarges the window to the whole screen while the children keep their place on it.
+    // The caller sends the edited LayoutParams to WindowManager.
+    void beginGesture() {
+        WindowManager.LayoutParams params = (WindowManager.LayoutParams) getLayoutParams();
+        startX = endX = params.x;
+        startY = endY = params.y;
+        restoreWidth = params.width;
+        restoreHeight = params.height;
+
+        getLocationOnScreen(gestureAnchor);
+        inGesture = true;
+        requestLayout();
+
+        params.x = 0;
+        params.y = 0;
+        params.width = WindowManager.LayoutParams.MATCH_PARENT;
+        params.height = WindowManager.LayoutParams.MATCH_PARENT;
+    }
+
+    boolean isInGesture() {
+        return inGesture;
+    }
+
+    // With END gravity the window's x offset is measured from the right edge, so it grows leftwards
+    int horizontalDirection() {
+        return (windowGravity() & Gravity.HORIZONTAL_GRAVITY_MASK) == Gravity.RIGHT ? -1 : 1;
+    }
+
+    private int windowGravity() {
+        WindowManager.LayoutParams params = (WindowManager.LayoutParams) getLayoutParams();
+        return Gravity.getAbsoluteGravity(params.gravity, getLayoutDirection());
+    }
+
+    // Shows the children where the window would be with its offsets at x, y
+    void dragTo(int x, int y) {
+        endX = x;
+        endY = y;
+        dragX = horizontalDirection() * (x - startX);
+        dragY = y - startY;
+        applyTransforms();
+    }
+
+    // Shows a child at a new size without a layout pass, where the real resize will put it:
+    // the window keeps the edge its gravity pins, and the children after it shift over
+    void previewChildScale(View child, float scaleX, float scaleY) {
+        scaledChild = child;
+        previewScaleX = scaleX;
+        previewScaleY = scaleY;
+        applyTransforms();
+    }
+
+    private void applyTransforms() {
+        float growthX = 0f;
+        float growthY = 0f;
+        if (scaledChild != null) {
+            growthX = (previewScaleX - 1f) * scaledChild.getWidth();
+            float tallest = previewScaleY * scaledChild.getHeight();
+            for (int i = 0; i < getChildCount(); i++) {
+                View child = getChildAt(i);
+                if (child != scaledChild && child.getVisibility() != GONE) {
+                    tallest = Math.max(tallest, child.getHeight());
+                }
+            }
+            growthY = tallest - contentHeight;
+        }
+
+        // Where the content's top-left corner ends up once the window wraps the new size
+        int gravity = windowGravity();
+        float shiftX = 0f;
+        switch (gravity & Gravity.HORIZONTAL_GRAVITY_MASK) {
+            case Gravity.RIGHT: shiftX = -growthX; break;
+            case Gravity.CENTER_HORIZONTAL: shiftX = -growthX / 2f; break;
+        }
+        // Children stay centred in the content's height, however the window grows
+        float shiftY = 0f;
+        switch (gravity & Gravity.VERTICAL_GRAVITY_MASK) {
+            case Gravity.TOP: shiftY = growthY / 2f; break;
+            case Gravity.BOTTOM: shiftY = -growthY / 2f; break;
+        }
+
+        boolean after = false;
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            float x = dragX + shiftX;
+            if (child == scaledChild) {
+                // Scaled about its centre, so half the growth keeps its left edge in place
+                child.setScaleX(previewScaleX);
+                child.setScaleY(previewScaleY);
+                x += growthX / 2f;
+                after = true;
+            } else if (after) {
+                x += growthX;
+            }
+            child.setTranslationX(x);
+            child.setTranslationY(dragY + shiftY);
+        }
+    }
+
+    // Moves the window to where the children were dragged and restores its size.
+    // The caller sends the edited LayoutParams to WindowManager.
+    void endGesture() {
+        WindowManager.LayoutParams params = (WindowManager.LayoutParams) getLayoutParams();
+        params.x = endX;
+        params.y = endY;
+        params.width = restoreWidth;
+        params.height = restoreHeight;
+
+        inGesture = false;
+        if (scaledChild != null) {
+            scaledChild.setScaleX(1f);
+            scaledChild.setScaleY(1f);
+            scaledChild = null;
+        }
+        previewScaleX = 1f;
+        previewScaleY = 1f;
+        dragX = 0f;
+        dragY = 0f;
+        applyTransforms();
+        requestLayout();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = 0;
+        int height = 0;
+        int visible = 0;
+
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            if (child.getVisibility() == GONE) continue;
+
+            measureChild(child, widthMeasureSpec, heightMeasureSpec);
+            width += child.getMeasuredWidth();
+            height = Math.max(height, child.getMeasuredHeight());
+            visible++;
+        }
+        if (visible > 1) {
+            width += gap * (visible - 1);
+        }
+        contentHeight = height;
+
+        setMeasuredDimension(resolveSize(width, widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        int originX = 0;
+        int originY = 0;
+        int height = b - t;
+        if (inGesture) {
+            // Works before and after the window has been resized
+            getLocationOnScreen(location);
+            originX = gestureAnchor[0] - location[0];
+            originY = gestureAnchor[1] - location[1];
+            height = contentHeight;
+        }
+        int x = originX;
+
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            if (child.getVisibility() == GONE) continue;
+
+            int childWidth = child.getMeasuredWidth();
+            int childHeight = child.getMeasuredHeight();
+            int top = originY + (height - childHeight) / 2;
+            child.layout(x, top, x + childWidth, top + childHeight);
+            x += childWidth + gap;
+        }
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        // Only reached when no child took the touch: a gap between controls
+        return true;
+    }
+
+    @Override
+    public boolean hasOverlappingRendering() {
+        return false;
+    }
+
+    @Override
+    public boolean shouldDelayChildPressedState() {
+        return false;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.volux;
+
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.content.ServiceConnection;
+import android.os.Handler;
+import android.os.IBinder;
+import android.os.Looper;
+import android.os.SystemClock;
+
+/**
+ * Settings channel from MainActivity to a running VoluxService.
+ * Binds without BIND_AUTO_CREATE, so it only connects while the service is
+ * alive and never starts it. Changes are merged per key and delivered at most
+ * once every FLUSH_INTERVAL_MS.
+ */
+class ServiceChannel implements ServiceConnection {
+
+    private static final long FLUSH_INTERVAL_MS = 16;
+
+    private final Context context;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushRunnable = this::flush;
+
+    private VoluxService.ControlBinder binder;
+    private SettingsDelta pending = new SettingsDelta();
+    private boolean reloadPending = false;
+    private boolean flushScheduled = false;
+    private boolean bound = false;
+    private long lastFlushTime;
+
+    ServiceChannel(Context context) {
+        this.context = context;
+    }
+
+    void attach() {
+        if (bound) return;
+        // Flags 0: connect whenever the service is running, but don't create it
+        bound = context.bindService(new Intent(context, VoluxService.class), this, 0);
+    }
+
+    void detach() {
+        handler.removeCallbacks(flushRunnable);
+        flushScheduled = false;
+        if (bound) {
+            context.unbindService(this);
+            bound = false;
+        }
+        binder = null;
+        pending = new SettingsDelta();
+        reloadPending = false;
+    }
+
+    boolean isConnected() {
+        return binder != null;
+    }
+
+    void putBoolean(String key, boolean value) {
+        if (binder == null) return;
+        pending.putBoolean(key, value);
+        scheduleFlush();
+    }
+
+    void putInt(String key, int value) {
+        if (binder == null) return;
+        pending.putInt(key, value);
+        scheduleFlush();
+    }
+
+    void putFloat(String key, float value) {
+        if (binder == null) return;
+        pending.putFloat(key, value);
+        scheduleFlush();
+    }
+
+    // Ask the service to re-read everything from VoluxPrefs, e.g. after a reset
+    void requestReload() {
+        if (binder == null) return;
+        reloadPending = true;
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        long delay = Math.max(0, lastFlushTime + FLUSH_INTERVAL_MS - SystemClock.uptimeMillis());
+        handler.postDelayed(flushRunnable, delay);
+    }
+
+    private void flush() {
+        flushScheduled = false;
+        lastFlushTime = SystemClock.uptimeMillis();
+        if (binder == null) return;
+
+        SettingsDelta delta = pending;
+        pending = new SettingsDelta();
+
+        if (reloadPending) {
+            reloadPending = false;
+            binder.reloadSettings();
+        }
+        if (!delta.isEmpty()) {
+            binder.applySettings(delta);
+        }
+    }
+
+    @Override
+    public void onServiceConnected(ComponentName name, IBinder service) {
+        binder = (VoluxService.ControlBinder) service;
+    }
+
+    @Override
+    public void onServiceDisconnected(ComponentName name) {
+        binder = null;
+        pending = new SettingsDelta();
+        reloadPending = false;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.volux;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A batch of typed setting changes keyed by the VoluxConfig.KEY_* constants.
+ * Writing the same key twice keeps only the latest value, so a burst of
+ * slider ticks collapses into a single entry.
+ */
+final class SettingsDelta {
+
+    private final Map<String, Object> values = new HashMap<>();
+
+    SettingsDelta putBoolean(String key, boolean value) {
+        values.put(key, value);
+        return this;
+    }
+
+    SettingsDelta putInt(String key, int value) {
+        values.put(key, value);
+        return this;
+    }
+
+    SettingsDelta putFloat(String key, float value) {
+        values.put(key, value);
+        return this;
+    }
+
+    boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    boolean getBoolean(String key, boolean fallback) {
+        Object value = values.get(key);
+        return value instanceof Boolean ? (Boolean) value : fallback;
+    }
+
+    int getInt(String key, int fallback) {
+        Object value = values.get(key);
+        return value instanceof Integer ? (Integer) value : fallback;
+    }
+
+    float getFloat(String key, float fallback) {
+        Object value = values.get(key);
+        return value instanceof Float ? (Float) value : fallback;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.volux;
+
+import android.view.Choreographer;
+import android.widget.SeekBar;
+
+/**
+ * SeekBar listener that samples user changes at most once per display frame
+ * for the live preview, and commits the final value once when tracking stops.
+ * Programmatic progress changes are ignored.
+ */
+abstract class SliderPreviewListener implements SeekBar.OnSeekBarChangeListener, Choreographer.FrameCallback {
+
+    private int pendingProgress;
+    private boolean framePosted = false;
+    private boolean tracking = false;
+
+    // Update labels and push the value to the running service
+    protected abstract void onPreview(int progress);
+
+    // Persist the value
+    protected abstract void onCommit(int progress);
+
+    @Override
+    public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+        if (!fromUser) return;
+
+        if (tracking) {
+            pendingProgress = progress;
+            if (!framePosted) {
+                framePosted = true;
+                Choreographer.getInstance().postFrameCallback(this);
+            }
+        } else {
+            // Key or accessibility step: there is no drag to wait for
+            onPreview(progress);
+            onCommit(progress);
+        }
+    }
+
+    @Override
+    public void onStartTrackingTouch(SeekBar seekBar) {
+        tracking = true;
+    }
+
+    @Override
+    public void onStopTrackingTouch(SeekBar seekBar) {
+        tracking = false;
+        if (framePosted) {
+            Choreographer.getInstance().removeFrameCallback(this);
+            framePosted = false;
+        }
+        onPreview(seekBar.getProgress());
+        onCommit(seekBar.getProgress());
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        framePosted = false;
+        onPreview(pendingProgress);
+    }
+}
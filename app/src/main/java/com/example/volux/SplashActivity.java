@@ -3,6 +3,8 @@ package com.example.volux;
 import android.content.Intent;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.view.animation.Animation;
 import android.view.animation.AnimationUtils;
 import android.widget.TextView;
@@ -11,6 +13,11 @@ import androidx.cardview.widget.CardView;
 
 public class SplashActivity extends AppCompatActivity {
 
+    // Keep the brand on screen at least this long, even if preloading is quicker
+    private static final long MIN_BRAND_TIME_MS = 800;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private long startTime;
     private TextView textVolux;
     private CardView splashCard;
     private AnimatedBorderView animatedBorder;
@@ -18,17 +25,50 @@ public class SplashActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+
+        // Warm start: everything is already loaded, skip the splash
+        if (AppPreloader.isReady()) {
+            openMainActivity();
+            return;
+        }
+
         setContentView(R.layout.activity_splash);
+        startTime = SystemClock.uptimeMillis();
 
         initViews();
         startAnimations();
 
-        // Navigate to MainActivity after 3 seconds
-        new Handler().postDelayed(() -> {
-            Intent intent = new Intent(SplashActivity.this, MainActivity.class);
-            startActivity(intent);
-            finish();
-        }, 3000);
+        // Navigate to MainActivity once it has been preloaded
+        AppPreloader.preload(this, this::onPreloaded);
+    }
+
+    private void onPreloaded() {
+        if (isFinishing() || isDestroyed()) return;
+
+        long remaining = startTime + MIN_BRAND_TIME_MS - SystemClock.uptimeMillis();
+        handler.postDelayed(this::openMainActivity, Math.max(0, remaining));
+    }
+
+    private void openMainActivity() {
+        Intent intent = new Intent(SplashActivity.this, MainActivity.class);
+        startActivity(intent);
+        finish();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // The border pauses itself once hidden; the view animations are just dropped
+        if (textVolux != null) {
+            textVolux.clearAnimation();
+            splashCard.clearAnimation();
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        handler.removeCallbacksAndMessages(null);
+        super.onDestroy();
     }
 
     private void initViews() {
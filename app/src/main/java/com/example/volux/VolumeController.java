@@ -0,0 +1,115 @@
+package com.example.volux;
+
+import android.content.Context;
+import android.media.AudioManager;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.volux.engine.StepCoalescer;
+
+/**
+ * Applies volume steps on a dedicated thread so the overlay never waits on AudioManager.
+ * Steps requested within one QUANTUM_MS window are summed and applied as a
+ * single absolute setStreamVolume() call, computed from the local VolumeStateCache.
+ */
+class VolumeController {
+
+    private static final String TAG = "VolumeController";
+    private static final long QUANTUM_MS = 16;
+    private static final String TRACE_VOLUME_STEP = "Volux:volumeStep";
+
+    private final Context context;
+    private final AudioManager audioManager;
+    private final int streamType;
+    private final VolumeStateCache state;
+    private final HandlerThread thread;
+    private final Handler handler;
+    private final Runnable drainRunnable = this::drain;
+
+    private final StepCoalescer steps = new StepCoalescer();
+    private volatile long lastIssueTime;
+    private volatile long drainDueTime;
+    // Async trace slice from the first queued step to the volume change
+    private volatile int drainTraceCookie;
+
+    VolumeController(Context context, AudioManager audioManager, int streamType) {
+        this.context = context;
+        this.audioManager = audioManager;
+        this.streamType = streamType;
+        state = new VolumeStateCache(audioManager);
+        thread = new HandlerThread("VoluxVolume");
+        thread.start();
+        handler = new Handler(thread.getLooper());
+
+        // Ranges and current values are read once; the broadcast keeps them fresh
+        handler.post(() -> {
+            try {
+                state.load();
+            } catch (Exception e) {
+                Log.e(TAG, "Error reading volume state", e);
+            }
+        });
+        state.register(context, handler);
+    }
+
+    VolumeStateCache getState() {
+        return state;
+    }
+
+    // Safe to call from any thread; never blocks
+    void adjust(int delta) {
+        if (delta == 0) return;
+
+        // Already at the limit: nothing to send
+        if (state.isLoaded() && !steps.hasPending()) {
+            int current = state.getCurrent(streamType);
+            if (state.clamp(streamType, current + delta) == current) return;
+        }
+
+        if (steps.add(delta)) {
+            long now = SystemClock.uptimeMillis();
+            long delay = Math.max(0, lastIssueTime + QUANTUM_MS - now);
+            drainDueTime = now + delay;
+            drainTraceCookie = VoluxTrace.beginAsync(TRACE_VOLUME_STEP);
+            handler.postDelayed(drainRunnable, delay);
+        }
+    }
+
+    private void drain() {
+        VoluxMetrics.record(VoluxMetrics.Histogram.HANDLER_LATENCY, SystemClock.uptimeMillis() - drainDueTime);
+        // Read before draining: a step queued after the drain may start a new slice
+        int traceCookie = drainTraceCookie;
+        int delta = steps.drain();
+        VoluxTrace.endAsync(TRACE_VOLUME_STEP, traceCookie);
+        if (delta == 0) return;
+
+        try {
+            if (!state.isLoaded()) {
+                state.load();
+            }
+            int current = state.getCurrent(streamType);
+            int target = state.clamp(streamType, current + delta);
+            if (target != current) {
+                boolean traced = VoluxTrace.begin("Volux:setStreamVolume");
+                try {
+                    audioManager.setStreamVolume(streamType, target, 0);
+                } finally {
+                    VoluxTrace.end(traced);
+                }
+                VoluxMetrics.count(VoluxMetrics.Counter.VOLUME_IPCS);
+                state.setCurrent(streamType, target);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error adjusting volume", e);
+        }
+        lastIssueTime = SystemClock.uptimeMillis();
+    }
+
+    void release() {
+        handler.removeCallbacks(drainRunnable);
+        state.unregister(context);
+        thread.quitSafely();
+    }
+}
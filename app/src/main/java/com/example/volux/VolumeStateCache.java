@@ -0,0 +1,139 @@
+package com.example.volux;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.media.AudioManager;
+import android.os.Build;
+import android.os.Handler;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Local mirror of the min/max/current index of the common audio streams.
+ * Ranges are read once, and current values follow the system's volume-change
+ * broadcast, so reads never reach AudioManager. When the audio route or ringer mode
+ * changes, each stream switches to another device's index without that broadcast
+ * being guaranteed, so the current values are read again then.
+ */
+class VolumeStateCache {
+
+    // Sent by AudioService on every index change; not part of the public SDK constants
+    private static final String ACTION_VOLUME_CHANGED = "android.media.VOLUME_CHANGED_ACTION";
+    private static final String EXTRA_STREAM_TYPE = "android.media.EXTRA_VOLUME_STREAM_TYPE";
+    private static final String EXTRA_STREAM_VALUE = "android.media.EXTRA_VOLUME_STREAM_VALUE";
+    // Sent when a stream's output device changes, e.g. headphones or Bluetooth connect
+    private static final String ACTION_STREAM_DEVICES_CHANGED = "android.media.STREAM_DEVICES_CHANGED_ACTION";
+
+    private static final int[] STREAMS = {
+            AudioManager.STREAM_VOICE_CALL,
+            AudioManager.STREAM_SYSTEM,
+            AudioManager.STREAM_RING,
+            AudioManager.STREAM_MUSIC,
+            AudioManager.STREAM_ALARM,
+            AudioManager.STREAM_NOTIFICATION
+    };
+    private static final int SLOTS = 16;
+    private static final int UNKNOWN = -1;
+
+    private final AudioManager audioManager;
+    private final AtomicIntegerArray min = new AtomicIntegerArray(SLOTS);
+    private final AtomicIntegerArray max = new AtomicIntegerArray(SLOTS);
+    private final AtomicIntegerArray current = new AtomicIntegerArray(SLOTS);
+    private volatile boolean loaded = false;
+
+    private final BroadcastReceiver receiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            if (!ACTION_VOLUME_CHANGED.equals(intent.getAction())) {
+                // Runs on the volume thread, ahead of any drain queued after the change
+                if (loaded) {
+                    loadCurrent();
+                }
+                return;
+            }
+
+            int stream = intent.getIntExtra(EXTRA_STREAM_TYPE, UNKNOWN);
+            int value = intent.getIntExtra(EXTRA_STREAM_VALUE, UNKNOWN);
+            if (isTracked(stream) && value >= 0) {
+                current.set(stream, value);
+            }
+        }
+    };
+
+    VolumeStateCache(AudioManager audioManager) {
+        this.audioManager = audioManager;
+        for (int i = 0; i < SLOTS; i++) {
+            current.set(i, UNKNOWN);
+        }
+    }
+
+    // Blocking AudioManager calls; run on the volume thread
+    void load() {
+        for (int stream : STREAMS) {
+            min.set(stream, Build.VERSION.SDK_INT >= Build.VERSION_CODES.P
+                    ? audioManager.getStreamMinVolume(stream) : 0);
+            max.set(stream, audioManager.getStreamMaxVolume(stream));
+        }
+        loadCurrent();
+        loaded = true;
+    }
+
+    private void loadCurrent() {
+        for (int stream : STREAMS) {
+            current.set(stream, audioManager.getStreamVolume(stream));
+        }
+    }
+
+    void register(Context context, Handler handler) {
+        IntentFilter filter = new IntentFilter(ACTION_VOLUME_CHANGED);
+        filter.addAction(ACTION_STREAM_DEVICES_CHANGED);
+        filter.addAction(AudioManager.RINGER_MODE_CHANGED_ACTION);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+            context.registerReceiver(receiver, filter, null, handler, Context.RECEIVER_NOT_EXPORTED);
+        } else {
+            context.registerReceiver(receiver, filter, null, handler);
+        }
+    }
+
+    void unregister(Context context) {
+        try {
+            context.unregisterReceiver(receiver);
+        } catch (IllegalArgumentException e) {
+            // Never registered
+        }
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    int getMin(int stream) {
+        return min.get(stream);
+    }
+
+    int getMax(int stream) {
+        return max.get(stream);
+    }
+
+    int getCurrent(int stream) {
+        return current.get(stream);
+    }
+
+    // Record a value we just set ourselves, ahead of the broadcast
+    void setCurrent(int stream, int value) {
+        current.set(stream, value);
+    }
+
+    int clamp(int stream, int index) {
+        return Math.max(min.get(stream), Math.min(max.get(stream), index));
+    }
+
+    private static boolean isTracked(int stream) {
+        for (int s : STREAMS) {
+            if (s == stream) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.volux;
+
+import android.content.SharedPreferences;
+
+/**
+ * Immutable snapshot of the user settings stored in VoluxPrefs.
+ * Loaded once and replaced as a whole whenever the preferences change, so the
+ * overlay's touch and animation paths only ever read plain final fields.
+ */
+final class VoluxConfig {
+
+    static final String PREFS_NAME = "VoluxPrefs";
+
+    // Control modes
+    static final String KEY_FLOATING_BUTTONS = "floating_buttons";
+    static final String KEY_GESTURE_BOX = "gesture_box";
+    static final String KEY_BOTH_MODES = "both_modes";
+    static final String KEY_ALWAYS_VISIBLE = "always_visible";
+    static final String KEY_MOVE_MODE = "move_mode_enabled";
+    static final String KEY_VELOCITY_GESTURE = "velocity_gesture";
+    static final String KEY_SINGLE_WINDOW = "single_window_overlay";
+
+    // Appearance and timing
+    static final String KEY_OPACITY = "opacity";
+    static final String KEY_AUTO_HIDE_DELAY = "auto_hide_delay";
+
+    // Geometry
+    static final String KEY_BUTTON_SIZE = "current_button_size";
+    static final String KEY_GESTURE_BOX_WIDTH = "gesture_box_width";
+    static final String KEY_GESTURE_BOX_HEIGHT = "gesture_box_height";
+    static final String KEY_BUTTONS_X = "floating_buttons_x";
+    static final String KEY_BUTTONS_Y = "floating_buttons_y";
+    static final String KEY_GESTURE_BOX_X = "gesture_box_x";
+    static final String KEY_GESTURE_BOX_Y = "gesture_box_y";
+
+    static final float DEFAULT_OPACITY = 0.8f;
+    static final int DEFAULT_AUTO_HIDE_DELAY = 3000;
+    static final int DEFAULT_BUTTON_SIZE = 60;
+    static final int DEFAULT_GESTURE_BOX_WIDTH = 200;
+    static final int DEFAULT_GESTURE_BOX_HEIGHT = 100;
+
+    final boolean floatingButtons;
+    final boolean gestureBox;
+    final boolean bothModes;
+    final boolean alwaysVisible;
+    final boolean moveMode;
+    final boolean velocityGesture;
+    final boolean singleWindow;
+    final float opacity;
+    final int autoHideDelay;
+    final int buttonSize;
+    final int gestureBoxWidth;
+    final int gestureBoxHeight;
+
+    private VoluxConfig(SharedPreferences prefs) {
+        floatingButtons = prefs.getBoolean(KEY_FLOATING_BUTTONS, true);
+        gestureBox = prefs.getBoolean(KEY_GESTURE_BOX, false);
+        bothModes = prefs.getBoolean(KEY_BOTH_MODES, false);
+        alwaysVisible = prefs.getBoolean(KEY_ALWAYS_VISIBLE, false);
+        moveMode = prefs.getBoolean(KEY_MOVE_MODE, false);
+        velocityGesture = prefs.getBoolean(KEY_VELOCITY_GESTURE, false);
+        singleWindow = prefs.getBoolean(KEY_SINGLE_WINDOW, false);
+        opacity = prefs.getFloat(KEY_OPACITY, DEFAULT_OPACITY);
+        autoHideDelay = prefs.getInt(KEY_AUTO_HIDE_DELAY, DEFAULT_AUTO_HIDE_DELAY);
+        buttonSize = prefs.getInt(KEY_BUTTON_SIZE, DEFAULT_BUTTON_SIZE);
+        gestureBoxWidth = prefs.getInt(KEY_GESTURE_BOX_WIDTH, DEFAULT_GESTURE_BOX_WIDTH);
+        gestureBoxHeight = prefs.getInt(KEY_GESTURE_BOX_HEIGHT, DEFAULT_GESTURE_BOX_HEIGHT);
+    }
+
+    private VoluxConfig(VoluxConfig base, SettingsDelta delta) {
+        floatingButtons = delta.getBoolean(KEY_FLOATING_BUTTONS, base.floatingButtons);
+        gestureBox = delta.getBoolean(KEY_GESTURE_BOX, base.gestureBox);
+        bothModes = delta.getBoolean(KEY_BOTH_MODES, base.bothModes);
+        alwaysVisible = delta.getBoolean(KEY_ALWAYS_VISIBLE, base.alwaysVisible);
+        moveMode = delta.getBoolean(KEY_MOVE_MODE, base.moveMode);
+        velocityGesture = delta.getBoolean(KEY_VELOCITY_GESTURE, base.velocityGesture);
+        singleWindow = delta.getBoolean(KEY_SINGLE_WINDOW, base.singleWindow);
+        opacity = delta.getFloat(KEY_OPACITY, base.opacity);
+        autoHideDelay = delta.getInt(KEY_AUTO_HIDE_DELAY, base.autoHideDelay);
+        buttonSize = delta.getInt(KEY_BUTTON_SIZE, base.buttonSize);
+        gestureBoxWidth = delta.getInt(KEY_GESTURE_BOX_WIDTH, base.gestureBoxWidth);
+        gestureBoxHeight = delta.getInt(KEY_GESTURE_BOX_HEIGHT, base.gestureBoxHeight);
+    }
+
+    static VoluxConfig load(SharedPreferences prefs) {
+        return new VoluxConfig(prefs);
+    }
+
+    VoluxConfig withDelta(SettingsDelta delta) {
+        return delta.isEmpty() ? this : new VoluxConfig(this, delta);
+    }
+
+    boolean showsFloatingButtons() {
+        return floatingButtons || bothModes;
+    }
+
+    boolean showsGestureBox() {
+        return gestureBox || bothModes;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.volux;
+
+import android.os.SystemClock;
+
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Process-wide performance counters for the overlay, printed by
+ * {@code adb shell dumpsys activity service com.example.volux/.VoluxService}.
+ * Recording is lock-free and allocation-free, so it stays on in release builds.
+ */
+final class VoluxMetrics {
+
+    enum Counter {
+        TOUCH_EVENTS,
+        VOLUME_IPCS,
+        PREFS_WRITES,
+        LAYOUT_UPDATES,
+        OVERLAY_WINDOWS_ADDED,
+        ANIMATORS_STARTED
+    }
+
+    enum Histogram {
+        // How late posted work (volume drains, auto-hide checks) ran, in ms
+        HANDLER_LATENCY
+    }
+
+    // Upper bounds in ms; the last bucket takes everything above
+    private static final long[] BUCKET_BOUNDS = {1, 2, 4, 8, 16, 32, 64, 128, 256};
+    private static final int BUCKETS = BUCKET_BOUNDS.length + 1;
+    // Per histogram: the buckets, then the sample count, sum and max
+    private static final int HISTOGRAM_SLOTS = BUCKETS + 3;
+
+    private static final Counter[] COUNTERS = Counter.values();
+    private static final Histogram[] HISTOGRAMS = Histogram.values();
+
+    private static final AtomicLongArray counters = new AtomicLongArray(COUNTERS.length);
+    private static final AtomicLongArray histograms = new AtomicLongArray(HISTOGRAMS.length * HISTOGRAM_SLOTS);
+    private static final long startTime = SystemClock.uptimeMillis();
+
+    private VoluxMetrics() {
+    }
+
+    static void count(Counter counter) {
+        counters.incrementAndGet(counter.ordinal());
+    }
+
+    static void record(Histogram histogram, long valueMs) {
+        int base = histogram.ordinal() * HISTOGRAM_SLOTS;
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS.length && valueMs > BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        histograms.incrementAndGet(base + bucket);
+        histograms.incrementAndGet(base + BUCKETS);
+        histograms.addAndGet(base + BUCKETS + 1, valueMs);
+
+        int maxSlot = base + BUCKETS + 2;
+        long max;
+        while (valueMs > (max = histograms.get(maxSlot))) {
+            if (histograms.compareAndSet(maxSlot, max, valueMs)) break;
+        }
+    }
+
+    static void dump(PrintWriter writer) {
+        writer.println("Volux metrics (" + (SystemClock.uptimeMillis() - startTime) / 1000 + "s since start)");
+        for (Counter counter : COUNTERS) {
+            writer.println("  " + counter.name().toLowerCase(Locale.ROOT) + ": " + counters.get(counter.ordinal()));
+        }
+
+        for (Histogram histogram : HISTOGRAMS) {
+            int base = histogram.ordinal() * HISTOGRAM_SLOTS;
+            long count = histograms.get(base + BUCKETS);
+            long sum = histograms.get(base + BUCKETS + 1);
+            writer.println("  " + histogram.name().toLowerCase(Locale.ROOT) + ": count=" + count
+                    + " avg=" + (count > 0 ? sum / count : 0) + "ms"
+                    + " max=" + histograms.get(base + BUCKETS + 2) + "ms");
+
+            StringBuilder buckets = new StringBuilder("   ");
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.append(i < BUCKET_BOUNDS.length ? " <=" + BUCKET_BOUNDS[i] : " >" + BUCKET_BOUNDS[i - 1])
+                        .append(':').append(histograms.get(base + i));
+            }
+            writer.println(buckets);
+        }
+    }
+}
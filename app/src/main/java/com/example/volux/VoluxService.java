@@ -1,5 +1,7 @@
 package com.example.volux;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
 import android.animation.AnimatorSet;
 import android.animation.ObjectAnimator;
 import android.animation.ValueAnimator;
@@ -13,13 +15,18 @@ import android.content.Intent;
 import android.content.SharedPreferences;
 import android.content.pm.ServiceInfo;
 import android.graphics.Canvas;
+import android.graphics.LinearGradient;
 import android.graphics.Paint;
 import android.graphics.PixelFormat;
+import android.graphics.RectF;
+import android.graphics.Shader;
 import android.media.AudioManager;
+import android.os.Binder;
 import android.os.Build;
 import android.os.Handler;
 import android.os.IBinder;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
 import android.view.Gravity;
 import android.view.LayoutInflater;
@@ -27,19 +34,41 @@ import android.view.MotionEvent;
 import android.view.ScaleGestureDetector;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewPropertyAnimator;
 import android.view.WindowManager;
 import android.widget.ImageButton;
+import androidx.annotation.VisibleForTesting;
 import androidx.core.app.NotificationCompat;
 
+import com.example.volux.engine.GestureEngine;
+import com.example.volux.engine.GestureListener;
+import com.example.volux.engine.GestureThresholds;
+import com.example.volux.engine.IdleDeadline;
+
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
+
 public class VoluxService extends Service {
 
     private WindowManager windowManager;
     private View floatingView, gestureBoxView, dotIndicatorView;
+    // Hierarchies whose window was removed by a mode change, kept for reuse
+    private View detachedFloatingView, detachedGestureBoxView;
+    // Single window hosting all controls when the compositor mode is on, otherwise null
+    private OverlayCompositor compositor;
     private ImageButton btnVolumeUp, btnVolumeDown;
+    private FeedbackAnimator btnUpFeedback, btnDownFeedback, gestureFeedback;
     private AudioManager audioManager;
+    private VolumeController volumeController;
     private SharedPreferences prefs;
+    private SharedPreferences.OnSharedPreferenceChangeListener prefsListener;
+    private volatile VoluxConfig config;
+    private VoluxConfig appliedConfig;
+    private GeometryStore geometry;
     private Handler hideHandler;
-    private Runnable hideRunnable;
+    private final Runnable hideRunnable = this::onHideDeadline;
+    private final IdleDeadline hideDeadline = new IdleDeadline();
+    private long hideDeadlineDueTime;
     private ScaleGestureDetector scaleGestureDetector;
 
     // Button size limits (in dp)
@@ -59,17 +88,73 @@ public class VoluxService extends Service {
     private static final float FULL_OPACITY = 1.0f;
     private static final float HIDDEN_OPACITY = 0.0f;
 
+    // Fades and zooms are composited from a hardware layer instead of redrawing the
+    // overlapping views every frame; flip to compare with FrameIntervalLogger output
+    private static final boolean USE_TRANSITION_LAYERS = true;
+    private final FrameIntervalLogger frameLogger = new FrameIntervalLogger();
+    private LayoutCommitter layoutCommitter;
+
+    // Velocity swipe: each 800 dp/s of finger speed multiplies the steps per 20dp
+    // of travel by one more, capped at 5x
+    private static final float VELOCITY_GAIN_DP_PER_SEC = 800f;
+    private static final float MAX_VELOCITY_GAIN = 5f;
+
+    // Gesture thresholds, handed to the gesture engine in pixels
+    private static final float BUTTONS_DRAG_SLOP_PX = 10f;
+    private static final float VOLUME_STEP_DP = 20f;
+    private static final long TAP_TIMEOUT_MS = 200;
+
     private static final String CHANNEL_ID = "VoluxService";
     private static final int NOTIFICATION_ID = 1;
     private static final String TAG = "VoluxService";
 
+    private final IBinder controlBinder = new ControlBinder();
+
+    /**
+     * In-process control channel used by MainActivity while the service is running.
+     * Calls arrive on the main thread.
+     */
+    class ControlBinder extends Binder {
+        void applySettings(SettingsDelta delta) {
+            applySettingsDelta(delta);
+        }
+
+        void reloadSettings() {
+            updateControlsBasedOnSettings();
+        }
+    }
+
+    @VisibleForTesting
+    View getFloatingView() {
+        return floatingView;
+    }
+
+    @VisibleForTesting
+    View getGestureBoxView() {
+        return gestureBoxView;
+    }
+
+    @VisibleForTesting
+    GeometryStore getGeometry() {
+        return geometry;
+    }
+
     @Override
     public void onCreate() {
         super.onCreate();
 
         audioManager = (AudioManager) getSystemService(Context.AUDIO_SERVICE);
+        volumeController = new VolumeController(this, audioManager, AudioManager.STREAM_MUSIC);
         windowManager = (WindowManager) getSystemService(WINDOW_SERVICE);
-        prefs = getSharedPreferences("VoluxPrefs", MODE_PRIVATE);
+        layoutCommitter = new LayoutCommitter(windowManager);
+        prefs = getSharedPreferences(VoluxConfig.PREFS_NAME, MODE_PRIVATE);
+        config = VoluxConfig.load(prefs);
+        geometry = new GeometryStore(prefs);
+
+        // Swap in a fresh snapshot whenever settings change; the listener must be
+        // held in a field because SharedPreferences only keeps a weak reference
+        prefsListener = (sharedPreferences, key) -> config = VoluxConfig.load(sharedPreferences);
+        prefs.registerOnSharedPreferenceChangeListener(prefsListener);
         hideHandler = new Handler(Looper.getMainLooper());
 
         createNotificationChannel();
@@ -81,8 +166,13 @@ public class VoluxService extends Service {
             startForeground(NOTIFICATION_ID, createNotification());
         }
 
-        createDotIndicator();
-        setupControls();
+        boolean traced = VoluxTrace.begin("Volux:createOverlay");
+        try {
+            createDotIndicator();
+            setupControls();
+        } finally {
+            VoluxTrace.end(traced);
+        }
     }
 
     @Override
@@ -121,6 +211,14 @@ public class VoluxService extends Service {
 
     private void createDotIndicator() {
         dotIndicatorView = new DotIndicatorView(this);
+        dotIndicatorView.setVisibility(View.GONE);
+    }
+
+    private void attachDotIndicator() {
+        if (compositor != null) {
+            compositor.addControl(dotIndicatorView, dpToPx(12), dpToPx(12));
+            return;
+        }
 
         WindowManager.LayoutParams params = new WindowManager.LayoutParams(
                 dpToPx(12), dpToPx(12),
@@ -134,62 +232,177 @@ public class VoluxService extends Service {
         params.x = 0;
         params.y = 0;
 
-        windowManager.addView(dotIndicatorView, params);
-        dotIndicatorView.setVisibility(View.GONE);
+        addOverlayWindow(dotIndicatorView, params);
     }
 
     private void setupControls() {
-        boolean floatingButtons = prefs.getBoolean("floating_buttons", true);
-        boolean gestureBox = prefs.getBoolean("gesture_box", false);
-        boolean bothModes = prefs.getBoolean("both_modes", false);
-        isMoveMode = prefs.getBoolean("move_mode_enabled", false);
+        appliedConfig = config;
+        isMoveMode = appliedConfig.moveMode;
 
-        if (floatingButtons || bothModes) {
+        if (appliedConfig.singleWindow) {
+            createCompositor();
+        }
+
+        if (appliedConfig.showsFloatingButtons()) {
             createFloatingButtons();
         }
 
-        if (gestureBox || bothModes) {
+        if (appliedConfig.showsGestureBox()) {
             createGestureBox();
         }
 
+        attachDotIndicator();
+
         // Start with controls visible
         showControls();
         startAutoHideTimer();
     }
 
     private void createFloatingButtons() {
-        floatingView = LayoutInflater.from(this).inflate(R.layout.floating_buttons_enhanced, null);
+        if (floatingView != null) return;
+
+        if (detachedFloatingView != null) {
+            // Reuse the hierarchy from the last time this mode was switched off
+            floatingView = detachedFloatingView;
+            detachedFloatingView = null;
+        } else {
+            floatingView = LayoutInflater.from(this).inflate(R.layout.floating_buttons_enhanced, null);
 
-        btnVolumeUp = floatingView.findViewById(R.id.btnVolumeUp);
-        btnVolumeDown = floatingView.findViewById(R.id.btnVolumeDown);
+            btnVolumeUp = floatingView.findViewById(R.id.btnVolumeUp);
+            btnVolumeDown = floatingView.findViewById(R.id.btnVolumeDown);
+            btnUpFeedback = new FeedbackAnimator(btnVolumeUp);
+            btnDownFeedback = new FeedbackAnimator(btnVolumeDown);
 
-        setupButtonListeners();
-        setupPinchToResize();
-        setupDragAndDrop();
+            setupButtonListeners();
+            setupPinchToResize();
+            setupDragAndDrop();
+        }
         updateButtonAppearance();
 
+        if (compositor != null) {
+            compositor.addControl(floatingView, ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+            return;
+        }
+
         WindowManager.LayoutParams params = createWindowParams();
         params.gravity = Gravity.TOP | Gravity.START;
-        params.x = prefs.getInt("floating_buttons_x", 100);
-        params.y = prefs.getInt("floating_buttons_y", 100);
+        params.x = geometry.getButtonsX();
+        params.y = geometry.getButtonsY();
 
-        windowManager.addView(floatingView, params);
+        addHostWindow(floatingView, ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT, params);
     }
 
     private void createGestureBox() {
-        gestureBoxView = new GestureBoxView(this);
+        if (gestureBoxView != null) return;
 
-        WindowManager.LayoutParams params = createWindowParams();
-        currentGestureBoxWidth = prefs.getInt("gesture_box_width", 200);
-        currentGestureBoxHeight = prefs.getInt("gesture_box_height", 100);
-        params.width = dpToPx(currentGestureBoxWidth);
-        params.height = dpToPx(currentGestureBoxHeight);
+        if (detachedGestureBoxView != null) {
+            gestureBoxView = detachedGestureBoxView;
+            detachedGestureBoxView = null;
+        } else {
+            gestureBoxView = new GestureBoxView(this);
+            gestureFeedback = new FeedbackAnimator(gestureBoxView);
+        }
+
+        currentGestureBoxWidth = geometry.getGestureBoxWidth();
+        currentGestureBoxHeight = geometry.getGestureBoxHeight();
 
+        if (compositor != null) {
+            compositor.addControl(gestureBoxView, dpToPx(currentGestureBoxWidth), dpToPx(currentGestureBoxHeight));
+            return;
+        }
+
+        WindowManager.LayoutParams params = createWindowParams();
         params.gravity = Gravity.END | Gravity.CENTER_VERTICAL;
-        params.x = prefs.getInt("gesture_box_x", 50);
-        params.y = prefs.getInt("gesture_box_y", 0);
+        params.x = geometry.getGestureBoxX();
+        params.y = geometry.getGestureBoxY();
+
+        addHostWindow(gestureBoxView, dpToPx(currentGestureBoxWidth), dpToPx(currentGestureBoxHeight), params);
+    }
+
+    private void removeFloatingButtons() {
+        if (floatingView == null) return;
+        floatingView.animate().cancel();
+        btnUpFeedback.cancel();
+        btnDownFeedback.cancel();
+        removeControl(floatingView);
+        detachedFloatingView = floatingView;
+        floatingView = null;
+    }
+
+    private void removeGestureBox() {
+        if (gestureBoxView == null) return;
+        gestureBoxView.animate().cancel();
+        gestureFeedback.cancel();
+        removeControl(gestureBoxView);
+        detachedGestureBoxView = gestureBoxView;
+        gestureBoxView = null;
+    }
+
+    private void addOverlayWindow(View view, WindowManager.LayoutParams params) {
+        windowManager.addView(view, params);
+        VoluxMetrics.count(VoluxMetrics.Counter.OVERLAY_WINDOWS_ADDED);
+    }
 
-        windowManager.addView(gestureBoxView, params);
+    // Separate-window mode: the control sits in a window of its own that wraps it, so a
+    // drag can enlarge that window and move the control inside it instead of the window
+    private void addHostWindow(View control, int width, int height, WindowManager.LayoutParams params) {
+        OverlayCompositor host = new OverlayCompositor(this, 0);
+        host.addControl(control, width, height);
+        host.setVisibility(control.getVisibility());
+        addOverlayWindow(host, params);
+    }
+
+    // Applies the window's edited LayoutParams on the next frame, coalescing repeats
+    private void updateWindowLayout(View view) {
+        layoutCommitter.request(view);
+    }
+
+    private void removeControl(View view) {
+        OverlayCompositor window = windowRootOf(view);
+        if (window != compositor) {
+            windowManager.removeView(window);
+        }
+        window.removeView(view);
+    }
+
+    private void createCompositor() {
+        compositor = new OverlayCompositor(this, dpToPx(8));
+
+        // The whole group sits where the floating buttons would be
+        WindowManager.LayoutParams params = createWindowParams();
+        params.gravity = Gravity.TOP | Gravity.START;
+        params.x = geometry.getButtonsX();
+        params.y = geometry.getButtonsY();
+
+        addOverlayWindow(compositor, params);
+    }
+
+    // Take down every control and its window(s); views are kept for reuse
+    private void teardownControls() {
+        layoutCommitter.cancel();
+        removeFloatingButtons();
+        removeGestureBox();
+
+        if (compositor != null) {
+            compositor.removeView(dotIndicatorView);
+            windowManager.removeView(compositor);
+            compositor = null;
+        } else {
+            windowManager.removeView(dotIndicatorView);
+        }
+    }
+
+    // The window that has to move when a control is dragged: the group or the control's host
+    private OverlayCompositor windowRootOf(View control) {
+        return (OverlayCompositor) control.getParent();
+    }
+
+    // A separate host window goes GONE with its control, so it drops its surface too
+    private void setControlVisibility(View control, int visibility) {
+        control.setVisibility(visibility);
+        if (compositor == null) {
+            windowRootOf(control).setVisibility(visibility);
+        }
     }
 
     private WindowManager.LayoutParams createWindowParams() {
@@ -219,6 +432,14 @@ public class VoluxService extends Service {
 
     private void setupPinchToResize() {
         scaleGestureDetector = new ScaleGestureDetector(this, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScaleBegin(ScaleGestureDetector detector) {
+                if (isMoveMode) {
+                    enlargeWindow(windowRootOf(floatingView));
+                }
+                return true;
+            }
+
             @Override
             public boolean onScale(ScaleGestureDetector detector) {
                 if (isMoveMode) {
@@ -228,95 +449,174 @@ public class VoluxService extends Service {
 
                     if (newSize != currentButtonSize) {
                         currentButtonSize = newSize;
-                        updateButtonSize();
-                        prefs.edit().putInt("current_button_size", currentButtonSize).apply();
+                        if (windowRootOf(floatingView).isInGesture()) {
+                            previewButtonSize();
+                        } else {
+                            updateButtonSize();
+                        }
+                        geometry.setButtonSize(currentButtonSize);
                     }
                     onUserInteraction();
                 }
                 return true;
             }
+
+            @Override
+            public void onScaleEnd(ScaleGestureDetector detector) {
+                if (windowRootOf(floatingView).isInGesture()) {
+                    // The real size lands in the same traversal as the window update
+                    updateButtonSize();
+                }
+                finishWindowGesture(windowRootOf(floatingView));
+                geometry.flush();
+            }
         });
     }
 
     private void setupDragAndDrop() {
-        floatingView.setOnTouchListener(new View.OnTouchListener() {
+        GestureEngine engine = new GestureEngine(createGestureThresholds(BUTTONS_DRAG_SLOP_PX), new GestureListener() {
             private int initialX, initialY;
-            private float initialTouchX, initialTouchY;
-            private boolean isDragging = false;
-            private long touchStartTime;
 
             @Override
-            public boolean onTouch(View v, MotionEvent event) {
-                scaleGestureDetector.onTouchEvent(event);
+            public void onDown() {
+                WindowManager.LayoutParams params = (WindowManager.LayoutParams) windowRootOf(floatingView).getLayoutParams();
+                initialX = params.x;
+                initialY = params.y;
+                onUserInteraction();
+            }
 
-                switch (event.getAction()) {
-                    case MotionEvent.ACTION_DOWN:
-                        touchStartTime = System.currentTimeMillis();
-                        if (isMoveMode) {
-                            WindowManager.LayoutParams params = (WindowManager.LayoutParams) floatingView.getLayoutParams();
-                            initialX = params.x;
-                            initialY = params.y;
-                            initialTouchX = event.getRawX();
-                            initialTouchY = event.getRawY();
-                            isDragging = false;
-                        }
-                        onUserInteraction();
-                        return true;
-
-                    case MotionEvent.ACTION_MOVE:
-                        if (isMoveMode && event.getPointerCount() == 1) {
-                            float deltaX = event.getRawX() - initialTouchX;
-                            float deltaY = event.getRawY() - initialTouchY;
-
-                            if (Math.abs(deltaX) > 10 || Math.abs(deltaY) > 10) {
-                                isDragging = true;
-                                WindowManager.LayoutParams params = (WindowManager.LayoutParams) floatingView.getLayoutParams();
-                                params.x = initialX + (int) deltaX;
-                                params.y = initialY + (int) deltaY;
-                                windowManager.updateViewLayout(floatingView, params);
-
-                                // Save position
-                                prefs.edit()
-                                        .putInt("floating_buttons_x", params.x)
-                                        .putInt("floating_buttons_y", params.y)
-                                        .apply();
-                            }
-                        }
-                        return true;
-
-                    case MotionEvent.ACTION_UP:
-                        if (!isControlsVisible && !isDragging) {
-                            // Tapped on invisible controls - show with zoom animation
-                            showControlsWithZoomAnimation();
-                        } else if (!isDragging && System.currentTimeMillis() - touchStartTime < 200) {
-                            // Quick tap - ensure visibility
-                            showControls();
-                        }
-                        onUserInteraction();
-                        return true;
+            @Override
+            public void onMove(float dx, float dy) {
+                dragWindow(floatingView, initialX, initialY, dx, dy);
+            }
+
+            @Override
+            public void onUp(boolean moved, boolean tap) {
+                finishWindowGesture(windowRootOf(floatingView));
+                geometry.flush();
+                if (!isControlsVisible && !moved) {
+                    // Tapped on invisible controls - show with zoom animation
+                    showControlsWithZoomAnimation();
+                } else if (tap) {
+                    // Quick tap - ensure visibility
+                    showControls();
                 }
-                return false;
+                onUserInteraction();
+            }
+
+            @Override
+            public void onCancel() {
+                finishWindowGesture(windowRootOf(floatingView));
+                geometry.flush();
+            }
+        });
+
+        floatingView.setOnTouchListener((v, event) -> {
+            boolean traced = VoluxTrace.begin("Volux:buttonsTouch");
+            try {
+                scaleGestureDetector.onTouchEvent(event);
+                engine.setMode(isMoveMode ? GestureEngine.MODE_MOVE : GestureEngine.MODE_TAP);
+                feedGestureEngine(engine, event);
+            } finally {
+                VoluxTrace.end(traced);
             }
+            return true;
         });
     }
 
-    private class GestureBoxView extends View {
-        private float startY;
+    private GestureThresholds createGestureThresholds(float dragSlopPx) {
+        float density = getResources().getDisplayMetrics().density;
+        return new GestureThresholds(dragSlopPx, VOLUME_STEP_DP * density, TAP_TIMEOUT_MS,
+                VELOCITY_GAIN_DP_PER_SEC * density, MAX_VELOCITY_GAIN);
+    }
+
+    // Drags a control by moving it inside its enlarged window; the window's real position
+    // is committed once, on release
+    private void dragWindow(View control, int initialX, int initialY, float dx, float dy) {
+        OverlayCompositor window = windowRootOf(control);
+        int x = initialX + window.horizontalDirection() * (int) dx;
+        int y = initialY + (int) dy;
+
+        enlargeWindow(window);
+        window.dragTo(x, y);
+
+        // Remember position, persisted once the drag ends
+        if (window != compositor && control == gestureBoxView) {
+            geometry.setGestureBoxPosition(x, y);
+        } else {
+            geometry.setButtonsPosition(x, y);
+        }
+    }
+
+    private void enlargeWindow(OverlayCompositor window) {
+        if (window.isInGesture()) return;
+
+        // One window update up front; the controls stay put on screen while it grows
+        window.beginGesture();
+        updateWindowLayout(window);
+    }
+
+    // Called when a drag or pinch ends, whether or not anything changed
+    private void finishWindowGesture(OverlayCompositor window) {
+        if (window.isInGesture()) {
+            window.endGesture();
+            updateWindowLayout(window);
+        }
+        layoutCommitter.flush();
+    }
+
+    // Screen coordinates, since the window may move under the finger
+    private static void feedGestureEngine(GestureEngine engine, MotionEvent event) {
+        VoluxMetrics.count(VoluxMetrics.Counter.TOUCH_EVENTS);
+        int action = event.getActionMasked();
+        if (action == MotionEvent.ACTION_MOVE) {
+            // Batched samples only feed the velocity estimate
+            float offsetX = event.getRawX() - event.getX();
+            float offsetY = event.getRawY() - event.getY();
+            for (int i = 0; i < event.getHistorySize(); i++) {
+                engine.addHistoricalSample(event.getHistoricalEventTime(i),
+                        event.getHistoricalX(i) + offsetX, event.getHistoricalY(i) + offsetY);
+            }
+        }
+        engine.onTouch(action, event.getEventTime(), event.getRawX(), event.getRawY());
+    }
+
+    private class GestureBoxView extends View implements GestureListener {
         private int initialX, initialY;
-        private float initialTouchX, initialTouchY;
         private ScaleGestureDetector gestureScaleDetector;
-        private Paint paint;
-        private boolean isResizing = false;
+        private final GestureEngine gestureEngine;
+        private final Paint fillPaint;
+        private final Paint strokePaint;
+        private final RectF bounds = new RectF();
+        private final float cornerRadius;
 
         public GestureBoxView(Context context) {
             super(context);
-            setBackgroundResource(R.drawable.gesture_box_background);
 
-            paint = new Paint();
-            paint.setColor(0x88000000);
-            paint.setStyle(Paint.Style.FILL);
+            // One fill replaces the gesture_box_background gradient plus the 0x88000000
+            // overlay that used to be drawn over it: these are the two layers pre-blended
+            fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            fillPaint.setStyle(Paint.Style.FILL);
+
+            strokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            strokePaint.setStyle(Paint.Style.STROKE);
+            strokePaint.setStrokeWidth(dpToPx(2));
+            strokePaint.setColor(context.getColor(R.color.primary_cyan));
+
+            cornerRadius = dpToPx(16);
+
+            // The box moves the window as soon as the finger does
+            gestureEngine = new GestureEngine(createGestureThresholds(0f), this);
 
             gestureScaleDetector = new ScaleGestureDetector(context, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+                @Override
+                public boolean onScaleBegin(ScaleGestureDetector detector) {
+                    if (isMoveMode) {
+                        enlargeWindow(windowRootOf(GestureBoxView.this));
+                    }
+                    return true;
+                }
+
                 @Override
                 public boolean onScale(ScaleGestureDetector detector) {
                     if (isMoveMode) {
@@ -331,95 +631,102 @@ public class VoluxService extends Service {
                         if (newWidth != currentGestureBoxWidth || newHeight != currentGestureBoxHeight) {
                             currentGestureBoxWidth = newWidth;
                             currentGestureBoxHeight = newHeight;
-                            updateGestureBoxSize();
-                            prefs.edit()
-                                    .putInt("gesture_box_width", currentGestureBoxWidth)
-                                    .putInt("gesture_box_height", currentGestureBoxHeight)
-                                    .apply();
+                            if (windowRootOf(GestureBoxView.this).isInGesture()) {
+                                previewGestureBoxSize();
+                            } else {
+                                updateGestureBoxSize();
+                            }
+                            geometry.setGestureBoxSize(currentGestureBoxWidth, currentGestureBoxHeight);
                         }
-                        isResizing = true;
                     }
                     return true;
                 }
+
+                @Override
+                public void onScaleEnd(ScaleGestureDetector detector) {
+                    if (windowRootOf(GestureBoxView.this).isInGesture()) {
+                        updateGestureBoxSize();
+                    }
+                    finishWindowGesture(windowRootOf(GestureBoxView.this));
+                    geometry.flush();
+                }
             });
         }
 
+        @Override
+        protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+            super.onSizeChanged(w, h, oldw, oldh);
+            float inset = strokePaint.getStrokeWidth() / 2f;
+            bounds.set(inset, inset, w - inset, h - inset);
+            // Bottom-left to top-right, like the drawable's 45 degree gradient
+            fillPaint.setShader(new LinearGradient(0, h, w, 0,
+                    0x97191919, 0x8F0D0D0D, Shader.TileMode.CLAMP));
+        }
+
         @Override
         protected void onDraw(Canvas canvas) {
-            super.onDraw(canvas);
-            // Draw a subtle border to indicate gesture area
-            canvas.drawRoundRect(0, 0, getWidth(), getHeight(), 12, 12, paint);
+            // Only re-recorded on resize; feedback moves the RenderNode, not the content
+            canvas.drawRoundRect(bounds, cornerRadius, cornerRadius, fillPaint);
+            canvas.drawRoundRect(bounds, cornerRadius, cornerRadius, strokePaint);
         }
 
         @Override
-        public boolean onTouchEvent(MotionEvent event) {
-            gestureScaleDetector.onTouchEvent(event);
+        public boolean hasOverlappingRendering() {
+            // The stroke only overlaps the fill's outer edge; not worth an offscreen pass
+            return false;
+        }
 
-            switch (event.getAction()) {
-                case MotionEvent.ACTION_DOWN:
-                    startY = event.getY();
-                    isResizing = false;
+        @Override
+        public boolean onTouchEvent(MotionEvent event) {
+            boolean traced = VoluxTrace.begin("Volux:gestureBoxTouch");
+            try {
+                gestureScaleDetector.onTouchEvent(event);
+                gestureEngine.setMode(isMoveMode ? GestureEngine.MODE_MOVE : GestureEngine.MODE_VOLUME);
+                gestureEngine.setVelocityScaling(config.velocityGesture);
+                feedGestureEngine(gestureEngine, event);
+            } finally {
+                VoluxTrace.end(traced);
+            }
+            return true;
+        }
 
-                    if (isMoveMode) {
-                        WindowManager.LayoutParams params = (WindowManager.LayoutParams) getLayoutParams();
-                        initialX = params.x;
-                        initialY = params.y;
-                        initialTouchX = event.getRawX();
-                        initialTouchY = event.getRawY();
-                    }
+        @Override
+        public void onDown() {
+            WindowManager.LayoutParams params = (WindowManager.LayoutParams) windowRootOf(this).getLayoutParams();
+            initialX = params.x;
+            initialY = params.y;
+
+            if (!isControlsVisible) {
+                showControlsWithZoomAnimation();
+            } else {
+                onUserInteraction();
+            }
+        }
 
-                    if (!isControlsVisible) {
-                        showControlsWithZoomAnimation();
-                    } else {
-                        onUserInteraction();
-                    }
-                    return true;
+        @Override
+        public void onMove(float dx, float dy) {
+            // Handle dragging in move mode
+            dragWindow(this, initialX, initialY, dx, dy);
+        }
 
-                case MotionEvent.ACTION_MOVE:
-                    if (isResizing) {
-                        return true; // Let scale detector handle resizing
-                    }
+        @Override
+        public void onVolume(int steps) {
+            adjustVolumeBy(steps);
+            animateVolumeGesture(steps > 0);
+            onUserInteraction();
+        }
 
-                    if (isMoveMode && event.getPointerCount() == 1) {
-                        // Handle dragging in move mode
-                        float deltaX = event.getRawX() - initialTouchX;
-                        float deltaY = event.getRawY() - initialTouchY;
-
-                        WindowManager.LayoutParams params = (WindowManager.LayoutParams) getLayoutParams();
-                        params.x = initialX + (int) deltaX;
-                        params.y = initialY + (int) deltaY;
-                        windowManager.updateViewLayout(this, params);
-
-                        // Save position
-                        prefs.edit()
-                                .putInt("gesture_box_x", params.x)
-                                .putInt("gesture_box_y", params.y)
-                                .apply();
-                    } else if (!isMoveMode) {
-                        // Handle volume gestures when not in move mode
-                        float deltaY = startY - event.getY();
-                        float threshold = dpToPx(20);
-
-                        if (Math.abs(deltaY) > threshold) {
-                            if (deltaY > 0) {
-                                adjustVolume(AudioManager.ADJUST_RAISE);
-                                animateVolumeGesture(true);
-                            } else {
-                                adjustVolume(AudioManager.ADJUST_LOWER);
-                                animateVolumeGesture(false);
-                            }
-                            startY = event.getY();
-                            onUserInteraction();
-                        }
-                    }
-                    return true;
+        @Override
+        public void onUp(boolean moved, boolean tap) {
+            finishWindowGesture(windowRootOf(this));
+            geometry.flush();
+            onUserInteraction();
+        }
 
-                case MotionEvent.ACTION_UP:
-                    isResizing = false;
-                    onUserInteraction();
-                    return true;
-            }
-            return super.onTouchEvent(event);
+        @Override
+        public void onCancel() {
+            finishWindowGesture(windowRootOf(this));
+            geometry.flush();
         }
     }
 
@@ -449,21 +756,18 @@ public class VoluxService extends Service {
 
     private void showControls() {
         isControlsVisible = true;
-        float opacity = prefs.getFloat("opacity", 0.8f);
+        float opacity = config.opacity;
 
         if (floatingView != null) {
-            floatingView.animate()
-                    .alpha(opacity)
-                    .setDuration(200)
-                    .start();
+            setControlVisibility(floatingView, View.VISIBLE);
+            fade(floatingView, opacity, 200).start();
         }
 
         if (gestureBoxView != null) {
-            gestureBoxView.animate()
-                    .alpha(opacity)
-                    .setDuration(200)
-                    .start();
+            setControlVisibility(gestureBoxView, View.VISIBLE);
+            fade(gestureBoxView, opacity, 200).start();
         }
+        onTransitionStarted("Volux:show", 200);
 
         dotIndicatorView.setVisibility(View.GONE);
     }
@@ -474,27 +778,75 @@ public class VoluxService extends Service {
         isControlsVisible = false;
 
         if (floatingView != null) {
-            floatingView.animate()
-                    .alpha(HIDDEN_OPACITY)
-                    .setDuration(300)
+            View view = floatingView;
+            fade(view, HIDDEN_OPACITY, 300)
+                    .withEndAction(() -> releaseHiddenControl(view))
                     .start();
         }
 
         if (gestureBoxView != null) {
-            gestureBoxView.animate()
-                    .alpha(HIDDEN_OPACITY)
-                    .setDuration(300)
+            View view = gestureBoxView;
+            fade(view, HIDDEN_OPACITY, 300)
+                    .withEndAction(() -> releaseHiddenControl(view))
                     .start();
         }
+        onTransitionStarted("Volux:hide", 300);
 
         dotIndicatorView.setVisibility(View.VISIBLE);
     }
 
+    // Marks a show/hide transition for frame logging and as an async trace slice
+    private void onTransitionStarted(String name, long durationMs) {
+        frameLogger.start(name, durationMs);
+
+        int cookie = VoluxTrace.beginAsync(name);
+        if (cookie != 0) {
+            hideHandler.postDelayed(() -> VoluxTrace.endAsync(name, cookie), durationMs);
+        }
+    }
+
+    private ViewPropertyAnimator fade(View view, float alpha, long duration) {
+        VoluxMetrics.count(VoluxMetrics.Counter.ANIMATORS_STARTED);
+        ViewPropertyAnimator animator = view.animate()
+                .alpha(alpha)
+                .setDuration(duration);
+        return USE_TRANSITION_LAYERS ? animator.withLayer() : animator;
+    }
+
+    // Same as ViewPropertyAnimator.withLayer(), for animator sets
+    private void startWithLayer(View view, AnimatorSet animSet) {
+        if (USE_TRANSITION_LAYERS) {
+            animSet.addListener(new AnimatorListenerAdapter() {
+                @Override
+                public void onAnimationStart(Animator animation) {
+                    view.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+                }
+
+                @Override
+                public void onAnimationEnd(Animator animation) {
+                    view.setLayerType(View.LAYER_TYPE_NONE, null);
+                }
+            });
+        }
+        animSet.start();
+        VoluxMetrics.count(VoluxMetrics.Counter.ANIMATORS_STARTED);
+    }
+
+    // Once faded out, a GONE root lets the window drop its surface and stop taking touches;
+    // in the compositor the control just stops being measured. Only the dot stays live.
+    private void releaseHiddenControl(View view) {
+        // The control may have been removed while it faded
+        if (!isControlsVisible && view.getParent() != null) {
+            setControlVisibility(view, View.GONE);
+        }
+    }
+
     private void showControlsWithZoomAnimation() {
         isControlsVisible = true;
-        float opacity = prefs.getFloat("opacity", 0.8f);
+        float opacity = config.opacity;
 
         if (floatingView != null) {
+            setControlVisibility(floatingView, View.VISIBLE);
             floatingView.setScaleX(0.1f);
             floatingView.setScaleY(0.1f);
             floatingView.setAlpha(0f);
@@ -506,10 +858,11 @@ public class VoluxService extends Service {
 
             animSet.playTogether(scaleX, scaleY, alpha);
             animSet.setDuration(400);
-            animSet.start();
+            startWithLayer(floatingView, animSet);
         }
 
         if (gestureBoxView != null) {
+            setControlVisibility(gestureBoxView, View.VISIBLE);
             gestureBoxView.setScaleX(0.1f);
             gestureBoxView.setScaleY(0.1f);
             gestureBoxView.setAlpha(0f);
@@ -521,59 +874,62 @@ public class VoluxService extends Service {
 
             animSet.playTogether(scaleX, scaleY, alpha);
             animSet.setDuration(400);
-            animSet.start();
+            startWithLayer(gestureBoxView, animSet);
         }
+        onTransitionStarted("Volux:zoom", 400);
 
         dotIndicatorView.setVisibility(View.GONE);
     }
 
     private void onUserInteraction() {
         if (!isMoveMode) {
-            showControls();
+            if (!isControlsVisible) {
+                showControls();
+            }
             startAutoHideTimer();
         }
     }
 
+    // Called for every touch event: just moves the deadline, the pending
+    // callback re-arms itself when it fires early
     private void startAutoHideTimer() {
-        if (hideHandler != null && hideRunnable != null) {
-            hideHandler.removeCallbacks(hideRunnable);
+        long now = SystemClock.uptimeMillis();
+        if (hideDeadline.touch(now)) {
+            hideDeadlineDueTime = now + config.autoHideDelay;
+            hideHandler.postDelayed(hideRunnable, config.autoHideDelay);
         }
+    }
 
-        int hideDelay = prefs.getInt("auto_hide_delay", 3000);
-        hideRunnable = this::hideControls;
-        hideHandler.postDelayed(hideRunnable, hideDelay);
+    private void cancelAutoHideTimer() {
+        hideHandler.removeCallbacks(hideRunnable);
+        hideDeadline.disarm();
+    }
+
+    private void onHideDeadline() {
+        long now = SystemClock.uptimeMillis();
+        VoluxMetrics.record(VoluxMetrics.Histogram.HANDLER_LATENCY, now - hideDeadlineDueTime);
+        long remaining = hideDeadline.onFired(now, config.autoHideDelay);
+        if (remaining > 0) {
+            hideDeadlineDueTime = now + remaining;
+            hideHandler.postDelayed(hideRunnable, remaining);
+        } else {
+            hideControls();
+        }
     }
 
     private void animateButtonBounce(View button, boolean upDirection) {
+        FeedbackAnimator feedback = button == btnVolumeUp ? btnUpFeedback : btnDownFeedback;
         float translationY = upDirection ? -20f : 20f;
 
-        ObjectAnimator bounce = ObjectAnimator.ofFloat(button, "translationY", 0f, translationY, 0f);
-        bounce.setDuration(300);
-        bounce.start();
-
-        ObjectAnimator scaleX = ObjectAnimator.ofFloat(button, "scaleX", 1f, 1.1f, 1f);
-        ObjectAnimator scaleY = ObjectAnimator.ofFloat(button, "scaleY", 1f, 1.1f, 1f);
-        scaleX.setDuration(200);
-        scaleY.setDuration(200);
-        scaleX.start();
-        scaleY.start();
+        // Bounce 300ms, scale pop 200ms; retargets a running bounce instead of stacking
+        feedback.play(translationY, 1.1f, 300, 200);
     }
 
     private void animateVolumeGesture(boolean volumeUp) {
         if (gestureBoxView == null) return;
 
         float translationY = volumeUp ? -30f : 30f;
-        ObjectAnimator bounce = ObjectAnimator.ofFloat(gestureBoxView, "translationY", 0f, translationY, 0f);
-        bounce.setDuration(200);
-        bounce.start();
-
-        // Scale feedback
-        ObjectAnimator scaleX = ObjectAnimator.ofFloat(gestureBoxView, "scaleX", 1f, 1.05f, 1f);
-        ObjectAnimator scaleY = ObjectAnimator.ofFloat(gestureBoxView, "scaleY", 1f, 1.05f, 1f);
-        scaleX.setDuration(150);
-        scaleY.setDuration(150);
-        scaleX.start();
-        scaleY.start();
+        gestureFeedback.play(translationY, 1.05f, 200, 150);
     }
 
     private void updateButtonSize() {
@@ -592,53 +948,180 @@ public class VoluxService extends Service {
         }
     }
 
+    // Pinch preview inside the enlarged window: scale to the size the bar will have. Padding
+    // and the gap between the buttons stay fixed, so only the buttons' growth is added.
+    private void previewButtonSize() {
+        int startWidth = floatingView.getWidth();
+        int startHeight = floatingView.getHeight();
+        if (startWidth == 0 || startHeight == 0) return;
+
+        int growth = dpToPx(currentButtonSize) - btnVolumeUp.getWidth();
+        windowRootOf(floatingView).previewChildScale(floatingView,
+                (startWidth + growth) / (float) startWidth,
+                (startHeight + 2 * growth) / (float) startHeight);
+    }
+
+    private void previewGestureBoxSize() {
+        if (gestureBoxView.getWidth() == 0 || gestureBoxView.getHeight() == 0) return;
+
+        windowRootOf(gestureBoxView).previewChildScale(gestureBoxView,
+                dpToPx(currentGestureBoxWidth) / (float) gestureBoxView.getWidth(),
+                dpToPx(currentGestureBoxHeight) / (float) gestureBoxView.getHeight());
+    }
+
     private void updateGestureBoxSize() {
         if (gestureBoxView != null) {
-            WindowManager.LayoutParams params = (WindowManager.LayoutParams) gestureBoxView.getLayoutParams();
+            // Resizing the child re-measures its compositor or host, whose window wraps it
+            ViewGroup.LayoutParams params = gestureBoxView.getLayoutParams();
             params.width = dpToPx(currentGestureBoxWidth);
             params.height = dpToPx(currentGestureBoxHeight);
-            windowManager.updateViewLayout(gestureBoxView, params);
+            gestureBoxView.setLayoutParams(params);
         }
     }
 
     private void updateButtonAppearance() {
-        currentButtonSize = prefs.getInt("current_button_size", 60);
+        currentButtonSize = geometry.getButtonSize();
         updateButtonSize();
     }
 
     private void updateControlsBasedOnSettings() {
-        // Update move mode
-        isMoveMode = prefs.getBoolean("move_mode_enabled", false);
+        boolean traced = VoluxTrace.begin("Volux:updateControlsBasedOnSettings");
+        try {
+            // Settings may have changed sizes or reset positions behind our back
+            geometry.reload();
+            applySettings(VoluxConfig.load(prefs));
+        } finally {
+            VoluxTrace.end(traced);
+        }
+    }
+
+    private void applySettingsDelta(SettingsDelta delta) {
+        if (appliedConfig == null || delta.isEmpty()) return;
+
+        if (delta.contains(VoluxConfig.KEY_BUTTON_SIZE)) {
+            geometry.previewButtonSize(delta.getInt(VoluxConfig.KEY_BUTTON_SIZE, currentButtonSize));
+        }
+        if (delta.contains(VoluxConfig.KEY_GESTURE_BOX_WIDTH) || delta.contains(VoluxConfig.KEY_GESTURE_BOX_HEIGHT)) {
+            geometry.previewGestureBoxSize(
+                    delta.getInt(VoluxConfig.KEY_GESTURE_BOX_WIDTH, geometry.getGestureBoxWidth()),
+                    delta.getInt(VoluxConfig.KEY_GESTURE_BOX_HEIGHT, geometry.getGestureBoxHeight()));
+        }
+
+        applySettings(appliedConfig.withDelta(delta));
+    }
+
+    private void applySettings(VoluxConfig next) {
+        VoluxConfig previous = appliedConfig;
+        config = next;
+        appliedConfig = next;
+
+        if (next.singleWindow != previous.singleWindow) {
+            // Every control changes window, so rebuild the window set once
+            teardownControls();
+            setupControls();
+            return;
+        }
+
+        // Only add or remove windows when the control mode really changed
+        if (next.showsFloatingButtons() != previous.showsFloatingButtons()) {
+            if (next.showsFloatingButtons()) {
+                createFloatingButtons();
+            } else {
+                removeFloatingButtons();
+            }
+        }
+        if (next.showsGestureBox() != previous.showsGestureBox()) {
+            if (next.showsGestureBox()) {
+                createGestureBox();
+            } else {
+                removeGestureBox();
+            }
+        }
+
+        applyGeometry();
+
+        isMoveMode = next.moveMode;
+
+        if (next.opacity != previous.opacity && isControlsVisible) {
+            // Jump straight to the new value so slider previews don't lag behind
+            applyOpacity(next.opacity);
+        }
+
+        if (next.autoHideDelay != previous.autoHideDelay) {
+            // A shorter delay must not wait for the old deadline
+            cancelAutoHideTimer();
+        }
+
+        showControls();
+        startAutoHideTimer();
+    }
+
+    // Bring attached windows in line with GeometryStore, one layout update per window at most
+    private void applyGeometry() {
+        if (currentButtonSize != geometry.getButtonSize()) {
+            currentButtonSize = geometry.getButtonSize();
+            updateButtonSize();
+        }
+
+        View buttonsWindow = compositor != null ? compositor
+                : floatingView != null ? windowRootOf(floatingView) : null;
+        if (buttonsWindow != null) {
+            WindowManager.LayoutParams params = (WindowManager.LayoutParams) buttonsWindow.getLayoutParams();
+            if (params.x != geometry.getButtonsX() || params.y != geometry.getButtonsY()) {
+                params.x = geometry.getButtonsX();
+                params.y = geometry.getButtonsY();
+                updateWindowLayout(buttonsWindow);
+            }
+        }
+
+        boolean sizeChanged = currentGestureBoxWidth != geometry.getGestureBoxWidth()
+                || currentGestureBoxHeight != geometry.getGestureBoxHeight();
+        currentGestureBoxWidth = geometry.getGestureBoxWidth();
+        currentGestureBoxHeight = geometry.getGestureBoxHeight();
+        if (gestureBoxView != null && sizeChanged) {
+            updateGestureBoxSize();
+        }
+        if (gestureBoxView != null && compositor == null) {
+            View boxWindow = windowRootOf(gestureBoxView);
+            WindowManager.LayoutParams params = (WindowManager.LayoutParams) boxWindow.getLayoutParams();
+            if (params.x != geometry.getGestureBoxX() || params.y != geometry.getGestureBoxY()) {
+                params.x = geometry.getGestureBoxX();
+                params.y = geometry.getGestureBoxY();
+                updateWindowLayout(boxWindow);
+            }
+        }
+    }
 
-        // Remove existing views
+    private void applyOpacity(float opacity) {
         if (floatingView != null) {
-            windowManager.removeView(floatingView);
-            floatingView = null;
+            floatingView.animate().cancel();
+            floatingView.setAlpha(opacity);
         }
         if (gestureBoxView != null) {
-            windowManager.removeView(gestureBoxView);
-            gestureBoxView = null;
+            gestureBoxView.animate().cancel();
+            gestureBoxView.setAlpha(opacity);
         }
-
-        // Recreate based on current settings
-        setupControls();
     }
 
     public void updateGestureBoxCustomSize(int width, int height) {
         currentGestureBoxWidth = Math.max(MIN_GESTURE_BOX_SIZE, Math.min(MAX_GESTURE_BOX_SIZE, width));
         currentGestureBoxHeight = Math.max(MIN_GESTURE_BOX_SIZE, Math.min(MAX_GESTURE_BOX_SIZE, height));
         updateGestureBoxSize();
-        prefs.edit()
-                .putInt("gesture_box_width", currentGestureBoxWidth)
-                .putInt("gesture_box_height", currentGestureBoxHeight)
-                .apply();
+        geometry.setGestureBoxSize(currentGestureBoxWidth, currentGestureBoxHeight);
+        geometry.flush();
     }
 
     private void adjustVolume(int direction) {
+        adjustVolumeBy(direction == AudioManager.ADJUST_RAISE ? 1 : -1);
+    }
+
+    private void adjustVolumeBy(int steps) {
+        boolean traced = VoluxTrace.begin("Volux:adjustVolume");
         try {
-            audioManager.adjustStreamVolume(AudioManager.STREAM_MUSIC, direction, 0);
-        } catch (Exception e) {
-            Log.e(TAG, "Error adjusting volume", e);
+            // Queued on the volume thread; consecutive steps are merged into one call
+            volumeController.adjust(steps);
+        } finally {
+            VoluxTrace.end(traced);
         }
     }
 
@@ -650,19 +1133,39 @@ public class VoluxService extends Service {
     public void onDestroy() {
         super.onDestroy();
 
-        if (hideHandler != null && hideRunnable != null) {
-            hideHandler.removeCallbacks(hideRunnable);
+        if (hideHandler != null) {
+            cancelAutoHideTimer();
+        }
+
+        if (prefs != null && prefsListener != null) {
+            prefs.unregisterOnSharedPreferenceChangeListener(prefsListener);
+        }
+
+        if (geometry != null) {
+            geometry.close();
+        }
+
+        if (volumeController != null) {
+            volumeController.release();
+        }
+
+        if (layoutCommitter != null) {
+            layoutCommitter.cancel();
         }
 
         try {
-            if (floatingView != null) {
-                windowManager.removeView(floatingView);
-            }
-            if (gestureBoxView != null) {
-                windowManager.removeView(gestureBoxView);
-            }
-            if (dotIndicatorView != null) {
-                windowManager.removeView(dotIndicatorView);
+            if (compositor != null) {
+                windowManager.removeView(compositor);
+            } else {
+                if (floatingView != null) {
+                    windowManager.removeView(windowRootOf(floatingView));
+                }
+                if (gestureBoxView != null) {
+                    windowManager.removeView(windowRootOf(gestureBoxView));
+                }
+                if (dotIndicatorView != null) {
+                    windowManager.removeView(dotIndicatorView);
+                }
             }
         } catch (Exception e) {
             Log.e(TAG, "Error removing views", e);
@@ -671,7 +1174,12 @@ public class VoluxService extends Service {
 
     @Override
     public IBinder onBind(Intent intent) {
-        return null;
+        return controlBinder;
+    }
+
+    @Override
+    protected void dump(FileDescriptor fd, PrintWriter writer, String[] args) {
+        VoluxMetrics.dump(writer);
     }
 }
 
@@ -0,0 +1,46 @@
+package com.example.volux;
+
+import androidx.tracing.Trace;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Trace sections for Perfetto/systrace captures of the overlay's hot paths.
+ * Sections are only emitted while a capture is recording app tracing; otherwise every
+ * call is one Trace.isEnabled() check and allocates nothing.
+ */
+final class VoluxTrace {
+
+    private static final AtomicInteger nextCookie = new AtomicInteger(1);
+
+    private VoluxTrace() {
+    }
+
+    // Returns whether a section was opened; pass it to end() so a capture starting or
+    // stopping in between never unbalances the sections
+    static boolean begin(String name) {
+        if (!Trace.isEnabled()) return false;
+        Trace.beginSection(name);
+        return true;
+    }
+
+    static void end(boolean begun) {
+        if (begun) {
+            Trace.endSection();
+        }
+    }
+
+    // Slice that may end on another thread or frame; 0 means not traced
+    static int beginAsync(String name) {
+        if (!Trace.isEnabled()) return 0;
+        int cookie = nextCookie.getAndIncrement();
+        Trace.beginAsyncSection(name, cookie);
+        return cookie;
+    }
+
+    static void endAsync(String name, int cookie) {
+        if (cookie != 0) {
+            Trace.endAsyncSection(name, cookie);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.volux;
+
+import android.animation.ValueAnimator;
+import android.media.AudioManager;
+import android.os.Handler;
+import android.os.Message;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.annotation.RealObject;
+import org.robolectric.shadows.ShadowAudioManager;
+import org.robolectric.shadows.ShadowSharedPreferences;
+import org.robolectric.shadows.ShadowValueAnimator;
+import org.robolectric.shadows.ShadowWindowManagerImpl;
+import org.robolectric.util.reflector.Direct;
+import org.robolectric.util.reflector.ForType;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.robolectric.util.reflector.Reflector.reflector;
+
+/**
+ * Robolectric shadows that count the expensive side effects of the overlay:
+ * prefs writes, window IPCs, audio calls, animator starts and handler posts.
+ * Each shadow counts and then calls through, so behaviour is unchanged.
+ */
+public class SideEffectCounters {
+
+    static final AtomicInteger prefsWrites = new AtomicInteger();
+    static final AtomicInteger addView = new AtomicInteger();
+    static final AtomicInteger updateViewLayout = new AtomicInteger();
+    static final AtomicInteger removeView = new AtomicInteger();
+    static final AtomicInteger audioCalls = new AtomicInteger();
+    static final AtomicInteger setStreamVolume = new AtomicInteger();
+    static final AtomicInteger animatorsStarted = new AtomicInteger();
+    static final AtomicInteger handlerMessages = new AtomicInteger();
+
+    static void reset() {
+        prefsWrites.set(0);
+        addView.set(0);
+        updateViewLayout.set(0);
+        removeView.set(0);
+        audioCalls.set(0);
+        setStreamVolume.set(0);
+        animatorsStarted.set(0);
+        handlerMessages.set(0);
+    }
+
+    @Implements(className = "android.app.SharedPreferencesImpl$EditorImpl", minSdk = 26, isInAndroidSdk = false)
+    public static class CountingEditor extends ShadowSharedPreferences.ShadowSharedPreferencesEditorImpl {
+        @Override
+        @Implementation
+        protected void apply() {
+            prefsWrites.incrementAndGet();
+            super.apply();
+        }
+
+        @Override
+        @Implementation
+        protected boolean commit() {
+            prefsWrites.incrementAndGet();
+            return super.commit();
+        }
+    }
+
+    @Implements(className = "android.view.WindowManagerImpl", isInAndroidSdk = false)
+    public static class CountingWindowManager extends ShadowWindowManagerImpl {
+        @RealObject
+        private Object realWindowManager;
+
+        @Override
+        @Implementation
+        public void addView(View view, ViewGroup.LayoutParams params) {
+            addView.incrementAndGet();
+            super.addView(view, params);
+        }
+
+        @Implementation
+        public void updateViewLayout(View view, ViewGroup.LayoutParams params) {
+            updateViewLayout.incrementAndGet();
+            reflector(WindowManagerImplReflector.class, realWindowManager).updateViewLayout(view, params);
+        }
+
+        @Override
+        @Implementation
+        public void removeView(View view) {
+            removeView.incrementAndGet();
+            super.removeView(view);
+        }
+    }
+
+    @ForType(className = "android.view.WindowManagerImpl")
+    interface WindowManagerImplReflector {
+        @Direct
+        void updateViewLayout(View view, ViewGroup.LayoutParams params);
+    }
+
+    @Implements(AudioManager.class)
+    public static class CountingAudioManager extends ShadowAudioManager {
+        @Override
+        @Implementation
+        protected int getStreamVolume(int streamType) {
+            audioCalls.incrementAndGet();
+            return super.getStreamVolume(streamType);
+        }
+
+        @Override
+        @Implementation
+        protected int getStreamMaxVolume(int streamType) {
+            audioCalls.incrementAndGet();
+            return super.getStreamMaxVolume(streamType);
+        }
+
+        @Implementation
+        protected int getStreamMinVolume(int streamType) {
+            audioCalls.incrementAndGet();
+            return 0;
+        }
+
+        @Override
+        @Implementation
+        protected void setStreamVolume(int streamType, int index, int flags) {
+            audioCalls.incrementAndGet();
+            setStreamVolume.incrementAndGet();
+            super.setStreamVolume(streamType, index, flags);
+        }
+
+        @Override
+        @Implementation
+        protected void adjustStreamVolume(int streamType, int direction, int flags) {
+            audioCalls.incrementAndGet();
+            super.adjustStreamVolume(streamType, direction, flags);
+        }
+    }
+
+    @Implements(ValueAnimator.class)
+    public static class CountingValueAnimator extends ShadowValueAnimator {
+        @RealObject
+        private ValueAnimator realAnimator;
+
+        @Implementation
+        protected void start() {
+            animatorsStarted.incrementAndGet();
+            reflector(ValueAnimatorReflector.class, realAnimator).start();
+        }
+    }
+
+    @ForType(ValueAnimator.class)
+    interface ValueAnimatorReflector {
+        @Direct
+        void start();
+    }
+
+    // Frame scheduling is Choreographer's business; only the app's own posts count
+    @Implements(Handler.class)
+    public static class CountingHandler {
+        @RealObject
+        private Handler realHandler;
+
+        @Implementation
+        public boolean sendMessageAtTime(Message msg, long uptimeMillis) {
+            if (!realHandler.getClass().getName().startsWith("android.view.Choreographer")) {
+                handlerMessages.incrementAndGet();
+            }
+            return reflector(HandlerReflector.class, realHandler).sendMessageAtTime(msg, uptimeMillis);
+        }
+    }
+
+    @ForType(Handler.class)
+    interface HandlerReflector {
+        @Direct
+        boolean sendMessageAtTime(Message msg, long uptimeMillis);
+    }
+}
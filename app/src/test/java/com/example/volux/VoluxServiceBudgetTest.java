@@ -0,0 +1,411 @@
+package com.example.volux;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.media.AudioManager;
+import android.os.Looper;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.android.controller.ServiceController;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowAudioManager;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.time.Duration;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Drives VoluxService through scripted interactions and checks each one's budget of prefs
+ * writes, window IPCs, audio calls, animators and posts. Counts asserted with assertEquals
+ * are exact, so a change in either direction shows up here; only the animator and handler
+ * counts, which depend on framework internals, are upper bounds.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, shadows = {
+        SideEffectCounters.CountingEditor.class,
+        SideEffectCounters.CountingWindowManager.class,
+        SideEffectCounters.CountingAudioManager.class,
+        SideEffectCounters.CountingValueAnimator.class,
+        SideEffectCounters.CountingHandler.class
+})
+public class VoluxServiceBudgetTest {
+
+    private static final int MOVES = 30;
+
+    private ServiceController<VoluxService> controller;
+    private VoluxService service;
+    private long eventTime;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.getApplication();
+        AudioManager audioManager = (AudioManager) context.getSystemService(Context.AUDIO_SERVICE);
+        ShadowAudioManager shadowAudio = shadowOf(audioManager);
+        shadowAudio.setStreamMaxVolume(15);
+        audioManager.setStreamVolume(AudioManager.STREAM_MUSIC, 0, 0);
+    }
+
+    @After
+    public void tearDown() {
+        if (controller != null) {
+            controller.destroy();
+        }
+    }
+
+    private void startService(boolean moveMode) {
+        startService(moveMode, false);
+    }
+
+    private static SharedPreferences prefs() {
+        return RuntimeEnvironment.getApplication()
+                .getSharedPreferences(VoluxConfig.PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    private void startService(boolean moveMode, boolean singleWindow) {
+        prefs().edit()
+                .putBoolean(VoluxConfig.KEY_BOTH_MODES, true)
+                .putBoolean(VoluxConfig.KEY_MOVE_MODE, moveMode)
+                .putBoolean(VoluxConfig.KEY_SINGLE_WINDOW, singleWindow)
+                .commit();
+
+        controller = Robolectric.buildService(VoluxService.class).create();
+        service = controller.get();
+        idleAll();
+        SideEffectCounters.reset();
+    }
+
+    // Runs everything queued on the main and background loopers, idle timers included
+    private static void idleAll() {
+        for (int i = 0; i < 2; i++) {
+            shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(1));
+            for (Looper looper : ShadowLooper.getAllLoopers()) {
+                if (looper != Looper.getMainLooper()) {
+                    shadowOf(looper).idle();
+                }
+            }
+        }
+    }
+
+    // Background loopers run freely in PAUSED mode; pausing one makes its posts wait for idle()
+    private static Looper pauseLooper(String threadName) {
+        for (Looper looper : ShadowLooper.getAllLoopers()) {
+            if (looper.getThread().getName().equals(threadName)) {
+                shadowOf(looper).pause();
+                return looper;
+            }
+        }
+        throw new AssertionError("No looper on thread " + threadName);
+    }
+
+    private void assertButtonSize(int expectedDp) {
+        View button = service.getFloatingView().findViewById(R.id.btnVolumeUp);
+        ViewGroup.LayoutParams params = button.getLayoutParams();
+        int expectedPx = (int) (expectedDp * service.getResources().getDisplayMetrics().density);
+        assertEquals(expectedPx, params.width);
+        assertEquals(expectedPx, params.height);
+    }
+
+    @Test
+    public void dragButtons_enlargeOnceAndCommitOnRelease() {
+        startService(true);
+        View buttons = service.getFloatingView();
+
+        // Outside both buttons, so the bar's own listener gets the touch
+        touch(buttons, MotionEvent.ACTION_DOWN, -5, -5);
+        for (int i = 1; i <= MOVES; i++) {
+            touch(buttons, MotionEvent.ACTION_MOVE, -5 + i * 5, -5 + i * 3);
+            shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(16));
+        }
+        touch(buttons, MotionEvent.ACTION_UP, -5 + MOVES * 5, -5 + MOVES * 3);
+        idleAll();
+
+        // The buttons move inside their enlarged window; only the enlarge and the drop
+        // reach WindowManager, however many frames ran
+        assertEquals(2, SideEffectCounters.updateViewLayout.get());
+        assertEquals(0f, buttons.getTranslationX(), 0f);
+        assertEquals(0f, buttons.getTranslationY(), 0f);
+        assertEquals(100 + MOVES * 5, prefs().getInt(VoluxConfig.KEY_BUTTONS_X, 0));
+        assertEquals(100 + MOVES * 3, prefs().getInt(VoluxConfig.KEY_BUTTONS_Y, 0));
+        assertEquals(1, SideEffectCounters.prefsWrites.get());
+        assertEquals(0, SideEffectCounters.addView.get());
+        assertEquals(0, SideEffectCounters.removeView.get());
+        assertEquals(0, SideEffectCounters.audioCalls.get());
+        assertTrue(SideEffectCounters.handlerMessages.get() <= 5);
+    }
+
+    @Test
+    public void dragGestureBox_enlargeOnceAndCommitOnRelease() {
+        startService(true);
+        View box = service.getGestureBoxView();
+
+        touch(box, MotionEvent.ACTION_DOWN, 50, 50);
+        for (int i = 1; i <= MOVES; i++) {
+            touch(box, MotionEvent.ACTION_MOVE, 50 + i * 2, 50 + i * 3);
+            shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(16));
+        }
+        touch(box, MotionEvent.ACTION_UP, 50 + MOVES * 2, 50 + MOVES * 3);
+        idleAll();
+
+        assertEquals(2, SideEffectCounters.updateViewLayout.get());
+        assertEquals(1, SideEffectCounters.prefsWrites.get());
+        // The box hangs off the right edge, so moving right shrinks its x offset
+        assertEquals(50 - MOVES * 2, prefs().getInt(VoluxConfig.KEY_GESTURE_BOX_X, 0));
+        assertEquals(MOVES * 3, prefs().getInt(VoluxConfig.KEY_GESTURE_BOX_Y, 0));
+        assertEquals(0, SideEffectCounters.addView.get());
+        assertEquals(0, SideEffectCounters.removeView.get());
+        assertEquals(0, SideEffectCounters.setStreamVolume.get());
+    }
+
+    @Test
+    public void dragGroup_enlargeOnceAndCommitOnRelease() {
+        startService(true, true);
+        View buttons = service.getFloatingView();
+
+        touch(buttons, MotionEvent.ACTION_DOWN, -5, -5);
+        for (int i = 1; i <= MOVES; i++) {
+            touch(buttons, MotionEvent.ACTION_MOVE, -5 + i * 5, -5 + i * 3);
+            shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(16));
+        }
+        touch(buttons, MotionEvent.ACTION_UP, -5 + MOVES * 5, -5 + MOVES * 3);
+        idleAll();
+
+        // Frames ran between the moves, yet only the enlarge and the drop reach WindowManager
+        assertEquals(2, SideEffectCounters.updateViewLayout.get());
+        assertEquals(1, SideEffectCounters.prefsWrites.get());
+        assertEquals(0, SideEffectCounters.addView.get());
+        assertEquals(0, SideEffectCounters.removeView.get());
+    }
+
+    @Test
+    public void pinchGroup_scalePreviewThenOneResize() {
+        startService(true, true);
+        View buttons = service.getFloatingView();
+
+        touch(buttons, MotionEvent.ACTION_DOWN, -100, -5);
+        pinch(buttons, MotionEvent.ACTION_POINTER_DOWN | (1 << MotionEvent.ACTION_POINTER_INDEX_SHIFT), 100);
+        for (int i = 1; i <= MOVES; i++) {
+            pinch(buttons, MotionEvent.ACTION_MOVE, 100 + i * 10);
+            shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(16));
+        }
+        pinch(buttons, MotionEvent.ACTION_POINTER_UP | (1 << MotionEvent.ACTION_POINTER_INDEX_SHIFT), 100 + MOVES * 10);
+        touch(buttons, MotionEvent.ACTION_UP, -100, -5);
+        idleAll();
+
+        // The window is enlarged once and restored once; the preview itself is only a transform
+        assertEquals(2, SideEffectCounters.updateViewLayout.get());
+        assertEquals(1f, buttons.getScaleX(), 0f);
+        assertEquals(1f, buttons.getScaleY(), 0f);
+
+        // Spreading the fingers to four times the span takes the buttons to the maximum
+        assertButtonSize(120);
+        assertEquals(120, service.getGeometry().getButtonSize());
+        assertEquals(120, prefs().getInt(VoluxConfig.KEY_BUTTON_SIZE, 0));
+        assertEquals(1, SideEffectCounters.prefsWrites.get());
+        assertEquals(0, SideEffectCounters.addView.get());
+        assertEquals(0, SideEffectCounters.removeView.get());
+    }
+
+    @Test
+    public void pinchButtons_scalePreviewThenOneResize() {
+        startService(true);
+        View buttons = service.getFloatingView();
+        int initialSize = buttons.findViewById(R.id.btnVolumeUp).getLayoutParams().width;
+
+        touch(buttons, MotionEvent.ACTION_DOWN, -100, -5);
+        pinch(buttons, MotionEvent.ACTION_POINTER_DOWN | (1 << MotionEvent.ACTION_POINTER_INDEX_SHIFT), 100);
+        for (int i = 1; i <= MOVES; i++) {
+            pinch(buttons, MotionEvent.ACTION_MOVE, 100 + i * 10);
+            shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(16));
+        }
+        // Mid-pinch the bar is only scaled; the buttons keep their laid-out size
+        assertEquals(initialSize, buttons.findViewById(R.id.btnVolumeUp).getLayoutParams().width);
+        pinch(buttons, MotionEvent.ACTION_POINTER_UP | (1 << MotionEvent.ACTION_POINTER_INDEX_SHIFT), 100 + MOVES * 10);
+        touch(buttons, MotionEvent.ACTION_UP, -100, -5);
+        idleAll();
+
+        // The host window is enlarged once and restored once, as in the group window
+        assertEquals(2, SideEffectCounters.updateViewLayout.get());
+        assertEquals(1f, buttons.getScaleX(), 0f);
+        assertEquals(1f, buttons.getScaleY(), 0f);
+        assertButtonSize(120);
+        assertEquals(120, service.getGeometry().getButtonSize());
+        assertEquals(120, prefs().getInt(VoluxConfig.KEY_BUTTON_SIZE, 0));
+        assertEquals(1, SideEffectCounters.prefsWrites.get());
+        assertEquals(0, SideEffectCounters.addView.get());
+        assertEquals(0, SideEffectCounters.removeView.get());
+        assertTrue(SideEffectCounters.handlerMessages.get() <= 5);
+    }
+
+    @Test
+    public void volumeSwipe_stepsCoalesceIntoOneAudioCall() {
+        startService(false);
+        View box = service.getGestureBoxView();
+        // Hold the volume thread so the first drain can't run before the other steps arrive
+        Looper volumeLooper = pauseLooper("VoluxVolume");
+
+        // Ten 25px steps up at mdpi, each past the 20dp threshold
+        touch(box, MotionEvent.ACTION_DOWN, 50, 400);
+        for (int i = 1; i <= 10; i++) {
+            touch(box, MotionEvent.ACTION_MOVE, 50, 400 - i * 25);
+        }
+        touch(box, MotionEvent.ACTION_UP, 50, 150);
+        assertEquals(0, SideEffectCounters.setStreamVolume.get());
+
+        shadowOf(volumeLooper).idle();
+        idleAll();
+
+        assertEquals(1, SideEffectCounters.setStreamVolume.get());
+        assertEquals(1, SideEffectCounters.audioCalls.get());
+        assertEquals(0, SideEffectCounters.prefsWrites.get());
+        assertEquals(0, SideEffectCounters.updateViewLayout.get());
+        assertTrue(SideEffectCounters.animatorsStarted.get() <= 2);
+        assertTrue(SideEffectCounters.handlerMessages.get() <= 3);
+
+        AudioManager audioManager = (AudioManager) service.getSystemService(Context.AUDIO_SERVICE);
+        assertEquals(10, audioManager.getStreamVolume(AudioManager.STREAM_MUSIC));
+    }
+
+    @Test
+    public void opacitySlider_noWindowIpcOrWrites() {
+        startService(false);
+        VoluxService.ControlBinder binder = (VoluxService.ControlBinder) service.onBind(new Intent());
+
+        int ticks = 20;
+        for (int i = 0; i < ticks; i++) {
+            binder.applySettings(new SettingsDelta().putFloat(VoluxConfig.KEY_OPACITY, 0.3f + i * 0.02f));
+        }
+        float last = 0.3f + (ticks - 1) * 0.02f;
+        assertEquals(last, service.getFloatingView().getAlpha(), 0.001f);
+        assertEquals(last, service.getGestureBoxView().getAlpha(), 0.001f);
+        idleAll();
+
+        assertEquals(0, SideEffectCounters.addView.get());
+        assertEquals(0, SideEffectCounters.removeView.get());
+        assertEquals(0, SideEffectCounters.updateViewLayout.get());
+        assertEquals(0, SideEffectCounters.prefsWrites.get());
+        assertTrue(SideEffectCounters.animatorsStarted.get() <= 2 * ticks);
+        assertTrue(SideEffectCounters.handlerMessages.get() <= ticks);
+    }
+
+    @Test
+    public void gestureBoxSizeSlider_noWindowIpcOrWrites() {
+        startService(false);
+        VoluxService.ControlBinder binder = (VoluxService.ControlBinder) service.onBind(new Intent());
+
+        int ticks = 20;
+        for (int i = 1; i <= ticks; i++) {
+            binder.applySettings(new SettingsDelta()
+                    .putInt(VoluxConfig.KEY_GESTURE_BOX_WIDTH, 200 + i * 5)
+                    .putInt(VoluxConfig.KEY_GESTURE_BOX_HEIGHT, 100 + i * 5));
+        }
+        idleAll();
+
+        // The box is resized inside its host, whose window follows in its own traversal
+        assertEquals(0, SideEffectCounters.updateViewLayout.get());
+        ViewGroup.LayoutParams params = service.getGestureBoxView().getLayoutParams();
+        float density = service.getResources().getDisplayMetrics().density;
+        assertEquals((int) (300 * density), params.width);
+        assertEquals((int) (200 * density), params.height);
+        assertEquals(300, service.getGeometry().getGestureBoxWidth());
+        assertEquals(200, service.getGeometry().getGestureBoxHeight());
+
+        // The settings screen persists the final value itself
+        assertEquals(VoluxConfig.DEFAULT_GESTURE_BOX_WIDTH,
+                prefs().getInt(VoluxConfig.KEY_GESTURE_BOX_WIDTH, VoluxConfig.DEFAULT_GESTURE_BOX_WIDTH));
+        assertEquals(0, SideEffectCounters.addView.get());
+        assertEquals(0, SideEffectCounters.removeView.get());
+        assertEquals(0, SideEffectCounters.prefsWrites.get());
+    }
+
+    @Test
+    public void sliderCommitThenDrag_keepsSliderSizeUntilReset() {
+        startService(true);
+        VoluxService.ControlBinder binder = (VoluxService.ControlBinder) service.onBind(new Intent());
+
+        // Button size slider from 60 to 100; on release MainActivity persists the value itself
+        for (int size = 65; size <= 100; size += 5) {
+            binder.applySettings(new SettingsDelta().putInt(VoluxConfig.KEY_BUTTON_SIZE, size));
+        }
+        prefs().edit().putInt(VoluxConfig.KEY_BUTTON_SIZE, 100).apply();
+        idleAll();
+        assertButtonSize(100);
+        SideEffectCounters.reset();
+
+        View buttons = service.getFloatingView();
+        touch(buttons, MotionEvent.ACTION_DOWN, -5, -5);
+        for (int i = 1; i <= MOVES; i++) {
+            touch(buttons, MotionEvent.ACTION_MOVE, -5 + i * 5, -5 + i * 3);
+        }
+        touch(buttons, MotionEvent.ACTION_UP, -5 + MOVES * 5, -5 + MOVES * 3);
+        idleAll();
+
+        // The drag only writes the position, so the slider's size survives
+        assertEquals(1, SideEffectCounters.prefsWrites.get());
+        assertEquals(100, prefs().getInt(VoluxConfig.KEY_BUTTON_SIZE, 0));
+        assertButtonSize(100);
+
+        // Reset from the settings screen, which then asks for a reload
+        prefs().edit().putInt(VoluxConfig.KEY_BUTTON_SIZE, VoluxConfig.DEFAULT_BUTTON_SIZE).apply();
+        binder.reloadSettings();
+        idleAll();
+
+        assertButtonSize(VoluxConfig.DEFAULT_BUTTON_SIZE);
+        assertEquals(VoluxConfig.DEFAULT_BUTTON_SIZE, service.getGeometry().getButtonSize());
+        assertEquals(VoluxConfig.DEFAULT_BUTTON_SIZE, prefs().getInt(VoluxConfig.KEY_BUTTON_SIZE, 0));
+    }
+
+    @Test
+    public void unchangedSettingsReload_touchesNothing() {
+        startService(false);
+        VoluxService.ControlBinder binder = (VoluxService.ControlBinder) service.onBind(new Intent());
+
+        for (int i = 0; i < 5; i++) {
+            binder.reloadSettings();
+        }
+        idleAll();
+
+        assertEquals(0, SideEffectCounters.addView.get());
+        assertEquals(0, SideEffectCounters.removeView.get());
+        assertEquals(0, SideEffectCounters.updateViewLayout.get());
+        assertEquals(0, SideEffectCounters.prefsWrites.get());
+        assertEquals(0, SideEffectCounters.audioCalls.get());
+    }
+
+    private void touch(View view, int action, float x, float y) {
+        eventTime += 16;
+        MotionEvent event = MotionEvent.obtain(0, eventTime, action, x, y, 0);
+        view.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    // Two fingers side by side, span px apart, left of the buttons
+    private void pinch(View view, int action, float span) {
+        eventTime += 16;
+        MotionEvent.PointerProperties[] properties = new MotionEvent.PointerProperties[2];
+        MotionEvent.PointerCoords[] coords = new MotionEvent.PointerCoords[2];
+        for (int i = 0; i < 2; i++) {
+            properties[i] = new MotionEvent.PointerProperties();
+            properties[i].id = i;
+            properties[i].toolType = MotionEvent.TOOL_TYPE_FINGER;
+            coords[i] = new MotionEvent.PointerCoords();
+            coords[i].x = -100 - i * span;
+            coords[i].y = -5;
+        }
+        MotionEvent event = MotionEvent.obtain(0, eventTime, action, 2, properties, coords,
+                0, 0, 1f, 1f, 0, 0, 0, 0);
+        view.dispatchTouchEvent(event);
+        event.recycle();
+    }
+}
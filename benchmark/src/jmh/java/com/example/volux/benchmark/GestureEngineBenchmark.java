@@ -0,0 +1,74 @@
+package com.example.volux.benchmark;
+
+import com.example.volux.engine.GestureEngine;
+import com.example.volux.engine.GestureListener;
+import com.example.volux.engine.GestureThresholds;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Touch-to-intent cost of the gesture engine, per touch sample. Each invocation
+ * replays one swipe: a down, MOVES moves with one batched historical sample each,
+ * and an up, with the thresholds the service uses at density 2.75.
+ */
+@State(Scope.Thread)
+public class GestureEngineBenchmark {
+
+    private static final int MOVES = 30;
+    private static final int SAMPLES = MOVES + 2;
+    private static final float DENSITY = 2.75f;
+
+    @Param({"volume", "velocity", "move"})
+    public String mode;
+
+    private final long[] times = new long[MOVES];
+    private final float[] ys = new float[MOVES];
+    private GestureEngine engine;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        GestureThresholds thresholds = new GestureThresholds(10f, 20f * DENSITY, 200,
+                800f * DENSITY, 5f);
+        engine = new GestureEngine(thresholds, new GestureListener() {
+            @Override
+            public void onMove(float dx, float dy) {
+                blackhole.consume(dx);
+            }
+
+            @Override
+            public void onVolume(int steps) {
+                blackhole.consume(steps);
+            }
+
+            @Override
+            public void onUp(boolean moved, boolean tap) {
+                blackhole.consume(tap);
+            }
+        });
+        engine.setMode("move".equals(mode) ? GestureEngine.MODE_MOVE : GestureEngine.MODE_VOLUME);
+        engine.setVelocityScaling("velocity".equals(mode));
+
+        // A 600 px upward swipe over 30 frames
+        for (int i = 0; i < MOVES; i++) {
+            times[i] = (i + 1) * 16L;
+            ys[i] = 1200f - (i + 1) * 20f;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void swipe() {
+        engine.onTouch(GestureEngine.ACTION_DOWN, 0, 500f, 1200f);
+        for (int i = 0; i < MOVES; i++) {
+            engine.addHistoricalSample(times[i] - 8, 500f, ys[i] + 10f);
+            engine.onTouch(GestureEngine.ACTION_MOVE, times[i], 500f, ys[i]);
+        }
+        engine.onTouch(GestureEngine.ACTION_UP, MOVES * 16L + 16, 500f, ys[MOVES - 1]);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.volux.benchmark;
+
+import com.example.volux.engine.IdleDeadline;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-event cost of pushing back the auto-hide deadline. {@code touch} is what every
+ * touch event pays while a callback is already pending; {@code cycle} adds the
+ * re-arm check the posted callback runs when it fires early.
+ */
+@State(Scope.Thread)
+public class IdleDeadlineBenchmark {
+
+    private static final long DELAY = 3000;
+
+    private final IdleDeadline deadline = new IdleDeadline();
+    private long now;
+
+    @Benchmark
+    public boolean touch() {
+        return deadline.touch(now += 16);
+    }
+
+    @Benchmark
+    public long cycle() {
+        deadline.touch(now += 16);
+        return deadline.onFired(now + 1, DELAY);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.volux.benchmark;
+
+import com.example.volux.engine.StepCoalescer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of queueing a volume step. {@code uncontended} is the touch thread alone;
+ * the {@code contended} group has three producers racing the volume thread's drain.
+ */
+@State(Scope.Group)
+public class StepCoalescerBenchmark {
+
+    private final StepCoalescer coalescer = new StepCoalescer();
+
+    @Benchmark
+    @Group("uncontended")
+    public boolean uncontended() {
+        if (coalescer.add(1)) {
+            return coalescer.drain() != 0;
+        }
+        return false;
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public boolean add() {
+        return coalescer.add(1);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public int drain() {
+        return coalescer.drain();
+    }
+}
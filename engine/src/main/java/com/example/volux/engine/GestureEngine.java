@@ -0,0 +1,205 @@
+package com.example.volux.engine;
+
+/**
+ * Turns raw touch samples into volume, move, resize and tap intents.
+ * Plain Java with no Android dependency, so it can be unit tested and
+ * benchmarked on a desktop JVM. Not thread safe: feed it from one thread.
+ */
+public final class GestureEngine {
+
+    // Same values as MotionEvent's masked actions, so callers can pass them through
+    public static final int ACTION_DOWN = 0;
+    public static final int ACTION_UP = 1;
+    public static final int ACTION_MOVE = 2;
+    public static final int ACTION_CANCEL = 3;
+    public static final int ACTION_POINTER_DOWN = 5;
+
+    // Only touch-down and taps are reported
+    public static final int MODE_TAP = 0;
+    // Vertical swipes emit volume steps
+    public static final int MODE_VOLUME = 1;
+    // Drags emit move offsets
+    public static final int MODE_MOVE = 2;
+
+    // Samples older than this, relative to the newest, don't count towards velocity
+    private static final long VELOCITY_HORIZON_MS = 100;
+    private static final int VELOCITY_SAMPLES = 16;
+
+    private final GestureThresholds thresholds;
+    private final GestureListener listener;
+
+    private int mode = MODE_TAP;
+    private boolean velocityScaling = false;
+
+    // Latched at touch-down so a settings change never switches mode mid-gesture
+    private int gestureMode;
+    private boolean gestureVelocityScaling;
+    private boolean active;
+    private boolean moved;
+    private boolean resizing;
+    private long downTime;
+    private float downX, downY;
+    private float anchorY;
+
+    // Ring buffer of recent (time, y) samples for the velocity estimate
+    private final long[] sampleTimes = new long[VELOCITY_SAMPLES];
+    private final float[] sampleYs = new float[VELOCITY_SAMPLES];
+    private int sampleHead;
+    private int sampleCount;
+
+    public GestureEngine(GestureThresholds thresholds, GestureListener listener) {
+        this.thresholds = thresholds;
+        this.listener = listener;
+    }
+
+    // Applies from the next touch-down
+    public void setMode(int mode) {
+        this.mode = mode;
+    }
+
+    public void setVelocityScaling(boolean enabled) {
+        this.velocityScaling = enabled;
+    }
+
+    /**
+     * Feeds one touch sample. Coordinates should be in screen space so that moving
+     * the window under the finger does not disturb the gesture.
+     */
+    public void onTouch(int action, long timeMs, float x, float y) {
+        switch (action) {
+            case ACTION_DOWN:
+                onDown(timeMs, x, y);
+                break;
+            case ACTION_POINTER_DOWN:
+                if (active && !resizing) {
+                    resizing = true;
+                    listener.onResizeStart();
+                }
+                break;
+            case ACTION_MOVE:
+                if (active) {
+                    addSample(timeMs, y);
+                    onMove(x, y);
+                }
+                break;
+            case ACTION_UP:
+                if (active) {
+                    active = false;
+                    boolean tap = !moved && !resizing && timeMs - downTime < thresholds.tapTimeoutMs;
+                    listener.onUp(moved, tap);
+                }
+                break;
+            case ACTION_CANCEL:
+                if (active) {
+                    active = false;
+                    listener.onCancel();
+                }
+                break;
+        }
+    }
+
+    /**
+     * Feeds a sample batched into a later move event. It only refines the velocity
+     * estimate; intents are computed for the newest position.
+     */
+    public void addHistoricalSample(long timeMs, float x, float y) {
+        if (active) {
+            addSample(timeMs, y);
+        }
+    }
+
+    private void onDown(long timeMs, float x, float y) {
+        active = true;
+        moved = false;
+        resizing = false;
+        gestureMode = mode;
+        gestureVelocityScaling = velocityScaling;
+        downTime = timeMs;
+        downX = x;
+        downY = y;
+        anchorY = y;
+        sampleCount = 0;
+        addSample(timeMs, y);
+        listener.onDown();
+    }
+
+    private void onMove(float x, float y) {
+        if (resizing) return;
+
+        if (gestureMode == MODE_MOVE) {
+            float dx = x - downX;
+            float dy = y - downY;
+            if (!moved && (Math.abs(dx) > thresholds.dragSlopPx || Math.abs(dy) > thresholds.dragSlopPx)) {
+                moved = true;
+            }
+            if (moved) {
+                listener.onMove(dx, dy);
+            }
+        } else if (gestureMode == MODE_VOLUME) {
+            onVolumeMove(y);
+        }
+    }
+
+    private void onVolumeMove(float y) {
+        float deltaY = anchorY - y;
+        float step = thresholds.volumeStepPx;
+
+        if (gestureVelocityScaling) {
+            // Scale the step count by swipe speed so a flick covers the range at once
+            float gain = Math.min(thresholds.maxVelocityGain,
+                    1f + Math.abs(velocityY()) / thresholds.velocityGainPxPerSec);
+            int steps = (int) (deltaY / step * gain);
+            if (steps != 0) {
+                // Keep the unused part of the movement for the next sample
+                anchorY -= steps * step / gain;
+                listener.onVolume(steps);
+            }
+        } else if (Math.abs(deltaY) > step) {
+            anchorY = y;
+            listener.onVolume(deltaY > 0 ? 1 : -1);
+        }
+    }
+
+    private void addSample(long timeMs, float y) {
+        sampleTimes[sampleHead] = timeMs;
+        sampleYs[sampleHead] = y;
+        sampleHead = (sampleHead + 1) % VELOCITY_SAMPLES;
+        if (sampleCount < VELOCITY_SAMPLES) {
+            sampleCount++;
+        }
+    }
+
+    /**
+     * Vertical velocity in px/s: least-squares slope of the samples within
+     * VELOCITY_HORIZON_MS of the newest one.
+     */
+    float velocityY() {
+        if (sampleCount < 2) return 0f;
+
+        int newest = (sampleHead - 1 + VELOCITY_SAMPLES) % VELOCITY_SAMPLES;
+        long newestTime = sampleTimes[newest];
+        float newestY = sampleYs[newest];
+
+        // Values relative to the newest sample keep the float sums small
+        float sumT = 0f, sumY = 0f, sumTT = 0f, sumTY = 0f;
+        int n = 0;
+        for (int i = 0; i < sampleCount; i++) {
+            int index = (newest - i + VELOCITY_SAMPLES) % VELOCITY_SAMPLES;
+            long age = newestTime - sampleTimes[index];
+            if (age > VELOCITY_HORIZON_MS) break;
+
+            float t = -age;
+            float yValue = sampleYs[index] - newestY;
+            sumT += t;
+            sumY += yValue;
+            sumTT += t * t;
+            sumTY += t * yValue;
+            n++;
+        }
+        if (n < 2) return 0f;
+
+        float denominator = n * sumTT - sumT * sumT;
+        if (denominator == 0f) return 0f;
+        return (n * sumTY - sumT * sumY) / denominator * 1000f;
+    }
+}
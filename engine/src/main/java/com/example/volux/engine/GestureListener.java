@@ -0,0 +1,29 @@
+package com.example.volux.engine;
+
+/**
+ * Intents emitted by {@link GestureEngine}. All callbacks run synchronously on the
+ * thread that feeds the engine; the default implementations ignore the intent.
+ */
+public interface GestureListener {
+
+    default void onDown() {
+    }
+
+    // Total offset from the touch-down point, once the drag slop has been crossed
+    default void onMove(float dx, float dy) {
+    }
+
+    // Positive raises the volume
+    default void onVolume(int steps) {
+    }
+
+    // A second pointer went down; the rest of the gesture is a pinch
+    default void onResizeStart() {
+    }
+
+    default void onUp(boolean moved, boolean tap) {
+    }
+
+    default void onCancel() {
+    }
+}
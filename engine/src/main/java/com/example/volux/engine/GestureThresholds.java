@@ -0,0 +1,30 @@
+package com.example.volux.engine;
+
+/**
+ * Gesture thresholds, converted to pixels once so that no per-event unit
+ * conversion is needed.
+ */
+public final class GestureThresholds {
+
+    final float dragSlopPx;
+    final float volumeStepPx;
+    final long tapTimeoutMs;
+    final float velocityGainPxPerSec;
+    final float maxVelocityGain;
+
+    /**
+     * @param dragSlopPx           distance a move must cover before it counts as a drag
+     * @param volumeStepPx         vertical travel per volume step
+     * @param tapTimeoutMs         longest press that still counts as a tap
+     * @param velocityGainPxPerSec swipe speed that adds one more step per volumeStepPx
+     * @param maxVelocityGain      cap on the velocity multiplier
+     */
+    public GestureThresholds(float dragSlopPx, float volumeStepPx, long tapTimeoutMs,
+                             float velocityGainPxPerSec, float maxVelocityGain) {
+        this.dragSlopPx = dragSlopPx;
+        this.volumeStepPx = volumeStepPx;
+        this.tapTimeoutMs = tapTimeoutMs;
+        this.velocityGainPxPerSec = velocityGainPxPerSec;
+        this.maxVelocityGain = maxVelocityGain;
+    }
+}
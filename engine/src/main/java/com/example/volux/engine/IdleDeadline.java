@@ -0,0 +1,41 @@
+package com.example.volux.engine;
+
+/**
+ * Deadline that slides with every activity without touching the scheduler.
+ * The owner posts a single callback when {@link #touch} asks for one; when it
+ * fires, {@link #onFired} says whether to re-arm for the rest of the time or expire.
+ * Not thread safe.
+ */
+public final class IdleDeadline {
+
+    private boolean armed;
+    private long lastActivity;
+
+    /**
+     * Records activity at {@code now}.
+     *
+     * @return true if no callback is pending and the owner must post one for the full delay
+     */
+    public boolean touch(long now) {
+        lastActivity = now;
+        if (armed) return false;
+        armed = true;
+        return true;
+    }
+
+    // The owner removed its pending callback
+    public void disarm() {
+        armed = false;
+    }
+
+    /**
+     * Called from the posted callback.
+     *
+     * @return the time left to re-post the callback for, or 0 if the deadline has passed
+     */
+    public long onFired(long now, long delay) {
+        long remaining = lastActivity + delay - now;
+        armed = remaining > 0;
+        return armed ? remaining : 0;
+    }
+}
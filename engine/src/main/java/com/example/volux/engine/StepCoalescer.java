@@ -0,0 +1,34 @@
+package com.example.volux.engine;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sums volume steps from any thread until a single consumer drains them, so a
+ * burst of input turns into one volume change.
+ */
+public final class StepCoalescer {
+
+    private final AtomicInteger pendingSteps = new AtomicInteger();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    /**
+     * Adds steps; never blocks.
+     *
+     * @return true if the caller must schedule a drain
+     */
+    public boolean add(int steps) {
+        pendingSteps.addAndGet(steps);
+        return drainScheduled.compareAndSet(false, true);
+    }
+
+    public boolean hasPending() {
+        return pendingSteps.get() != 0;
+    }
+
+    // Consumer side: takes everything added so far and allows the next schedule
+    public int drain() {
+        drainScheduled.set(false);
+        return pendingSteps.getAndSet(0);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.volux.engine;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GestureEngineTest {
+
+    private static final GestureThresholds THRESHOLDS = new GestureThresholds(10f, 20f, 200, 800f, 5f);
+
+    private final List<String> events = new ArrayList<>();
+    private GestureEngine engine;
+
+    @Before
+    public void setUp() {
+        engine = new GestureEngine(THRESHOLDS, new GestureListener() {
+            @Override
+            public void onMove(float dx, float dy) {
+                events.add("move " + (int) dx + "," + (int) dy);
+            }
+
+            @Override
+            public void onVolume(int steps) {
+                events.add("volume " + steps);
+            }
+
+            @Override
+            public void onResizeStart() {
+                events.add("resize");
+            }
+
+            @Override
+            public void onUp(boolean moved, boolean tap) {
+                events.add("up moved=" + moved + " tap=" + tap);
+            }
+        });
+    }
+
+    @Test
+    public void quickPressIsTap() {
+        engine.onTouch(GestureEngine.ACTION_DOWN, 0, 100, 100);
+        engine.onTouch(GestureEngine.ACTION_UP, 100, 100, 100);
+        assertEquals("[up moved=false tap=true]", events.toString());
+    }
+
+    @Test
+    public void longPressIsNotTap() {
+        engine.onTouch(GestureEngine.ACTION_DOWN, 0, 100, 100);
+        engine.onTouch(GestureEngine.ACTION_UP, 300, 100, 100);
+        assertEquals("[up moved=false tap=false]", events.toString());
+    }
+
+    @Test
+    public void moveStartsPastSlop() {
+        engine.setMode(GestureEngine.MODE_MOVE);
+        engine.onTouch(GestureEngine.ACTION_DOWN, 0, 100, 100);
+        engine.onTouch(GestureEngine.ACTION_MOVE, 16, 105, 100);
+        engine.onTouch(GestureEngine.ACTION_MOVE, 32, 115, 100);
+        engine.onTouch(GestureEngine.ACTION_MOVE, 48, 108, 100);
+        engine.onTouch(GestureEngine.ACTION_UP, 64, 108, 100);
+        assertEquals("[move 15,0, move 8,0, up moved=true tap=false]", events.toString());
+    }
+
+    @Test
+    public void swipeUpRaisesOneStepPerThreshold() {
+        engine.setMode(GestureEngine.MODE_VOLUME);
+        engine.onTouch(GestureEngine.ACTION_DOWN, 0, 100, 500);
+        engine.onTouch(GestureEngine.ACTION_MOVE, 100, 100, 485);
+        engine.onTouch(GestureEngine.ACTION_MOVE, 200, 100, 475);
+        engine.onTouch(GestureEngine.ACTION_MOVE, 300, 100, 500);
+        assertEquals("[volume 1, volume -1]", events.toString());
+    }
+
+    @Test
+    public void fastSwipeScalesSteps() {
+        engine.setMode(GestureEngine.MODE_VOLUME);
+        engine.setVelocityScaling(true);
+
+        // 200 px down in 80 ms (2500 px/s) against the same travel in 1 s (200 px/s)
+        int fast = swipeSteps(8);
+        int slow = swipeSteps(100);
+
+        // Gains of about 4.1x and 1.25x over 10 plain steps
+        assertEquals(-12, slow);
+        assertTrue("fast swipe gave " + fast, fast <= -40);
+    }
+
+    private int swipeSteps(long frameMs) {
+        events.clear();
+        engine.onTouch(GestureEngine.ACTION_DOWN, 0, 100, 500);
+        for (int i = 1; i <= 10; i++) {
+            engine.onTouch(GestureEngine.ACTION_MOVE, i * frameMs, 100, 500 + i * 20);
+        }
+        engine.onTouch(GestureEngine.ACTION_UP, 11 * frameMs, 100, 700);
+
+        int steps = 0;
+        for (String event : events) {
+            if (event.startsWith("volume ")) {
+                steps += Integer.parseInt(event.substring(7));
+            }
+        }
+        return steps;
+    }
+
+    @Test
+    public void secondPointerSwitchesToResize() {
+        engine.setMode(GestureEngine.MODE_MOVE);
+        engine.onTouch(GestureEngine.ACTION_DOWN, 0, 100, 100);
+        engine.onTouch(GestureEngine.ACTION_POINTER_DOWN, 10, 100, 100);
+        engine.onTouch(GestureEngine.ACTION_MOVE, 20, 150, 150);
+        engine.onTouch(GestureEngine.ACTION_UP, 30, 150, 150);
+        assertEquals("[resize, up moved=false tap=false]", events.toString());
+    }
+
+    @Test
+    public void modeIsLatchedAtTouchDown() {
+        engine.setMode(GestureEngine.MODE_VOLUME);
+        engine.onTouch(GestureEngine.ACTION_DOWN, 0, 100, 500);
+        engine.setMode(GestureEngine.MODE_MOVE);
+        engine.onTouch(GestureEngine.ACTION_MOVE, 100, 150, 470);
+        assertEquals("[volume 1]", events.toString());
+    }
+}